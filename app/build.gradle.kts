@@ -29,6 +29,19 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // Benchmarks only run with -Pbenchmark, e.g. ./gradlew testDebugUnitTest -Pbenchmark
+                it.systemProperty("benchmark.enabled", project.hasProperty("benchmark"))
+                it.systemProperty(
+                    "benchmark.outputDir",
+                    layout.buildDirectory.dir("benchmark-results").get().asFile.absolutePath
+                )
+            }
+        }
+    }
 }
 
 dependencies {
@@ -37,10 +50,12 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation("androidx.recyclerview:recyclerview:1.3.2")
+    implementation("androidx.asynclayoutinflater:asynclayoutinflater:1.0.0")
     implementation("com.jakewharton:disklrucache:2.0.2")
 
     // Testing Dependencies
     testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.14.1")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
 }
@@ -0,0 +1,88 @@
+package com.example.assignment_app;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+
+import com.example.assignment_app.api.ImageApiService;
+import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.FeedCache;
+import com.example.assignment_app.util.ImageLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// FeedSyncJobService - Refreshes the feed and pre-downloads its thumbnails into the disk cache
+// while the device is charging on an unmetered network, so the next launch renders from disk.
+public class FeedSyncJobService extends JobService {
+
+    private static final int JOB_ID = 1001;
+    private static final long SYNC_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(6);
+    private static final long BYTE_BUDGET = 20 * 1024 * 1024; // Per run
+    private static final int FEED_SIZE = 100; // Same as MainActivity
+
+    private volatile boolean stopped;
+    private Thread worker;
+
+    // Schedules the periodic sync unless it already is
+    public static void schedule(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null || scheduler.getPendingJob(JOB_ID) != null) {
+            return;
+        }
+        JobInfo job = new JobInfo.Builder(JOB_ID, new ComponentName(context, FeedSyncJobService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                .setRequiresCharging(true)
+                .setPeriodic(SYNC_INTERVAL_MILLIS)
+                .setPersisted(true)
+                .build();
+        scheduler.schedule(job);
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        stopped = false;
+        worker = new Thread(() -> {
+            boolean refreshed = sync();
+            if (!stopped) { // onStopJob already asked for the retry
+                jobFinished(params, !refreshed);
+            }
+        }, "FeedSync");
+        worker.start();
+        return true; // Work continues on the worker thread
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Constraints no longer hold (unplugged, left the network) or the system needs the resources
+        stopped = true;
+        if (worker != null) {
+            worker.interrupt(); // Ends the current download early; its bytes are kept for resuming
+        }
+        return true; // Retry at the next opportunity
+    }
+
+    // Returns false only if the feed couldn't be refreshed. A run that used up its byte budget is
+    // finished too; the remaining thumbnails wait for the next periodic run.
+    private boolean sync() {
+        List<ImageItem> items;
+        try {
+            items = new ImageApiService(new FeedCache(this)).fetchImages(FEED_SIZE);
+        } catch (Exception e) {
+            Log.e("FeedSyncJobService", "Feed refresh failed", e);
+            return false;
+        }
+
+        List<String> imageUrls = new ArrayList<>(items.size());
+        for (ImageItem item : items) {
+            imageUrls.add(item.getThumbnail().getThumbnailUrl()); // Same URL, and so key, the grid binds
+        }
+        ImageLoader.getInstance(this).prefetchToDisk(imageUrls, BYTE_BUDGET, () -> stopped);
+        return true;
+    }
+}
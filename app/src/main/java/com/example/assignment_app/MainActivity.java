@@ -1,14 +1,14 @@
 package com.example.assignment_app;
 
+import android.content.pm.ApplicationInfo;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.os.AsyncTask;
 import android.os.Bundle;
-import android.util.LruCache;
+import android.util.Log;
 import android.view.View;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -16,7 +16,13 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.assignment_app.adapter.ImageAdapter;
 import com.example.assignment_app.api.ImageApiService;
 import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.BitmapUtils;
 import com.example.assignment_app.util.ErrorHandler;
+import com.example.assignment_app.util.FeedCache;
+import com.example.assignment_app.util.HistogramImageMetrics;
+import com.example.assignment_app.util.ImageLoader;
+import com.example.assignment_app.util.ImageMetrics;
+import com.example.assignment_app.util.Instrumentation;
 import com.example.assignment_app.util.NetworkUtils;
 
 import java.io.InputStream;
@@ -30,37 +36,72 @@ public class MainActivity extends AppCompatActivity {
     private View progressBar; // Progress bar to indicate loading state
     private ImageAdapter imageAdapter; // Adapter for RecyclerView
     private ImageApiService apiService; // API service to fetch images
-    private LruCache<String, Bitmap> memoryCache; // LRU cache for image caching
+    private ImageLoader imageLoader; // Loads grid images through the memory, disk and network tiers
 
     private static final int GRID_COLUMN_COUNT = 3; // Number of columns in grid layout
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Aggregate pipeline metrics in debuggable builds; release builds keep the no-op default
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0
+                && !Instrumentation.metrics().isEnabled()) {
+            Instrumentation.install(new HistogramImageMetrics());
+        }
+
+        // Shared loader, so its caches survive configuration changes; its disk cache opens in the background.
+        // Created before inflation so last session's thumbnails decode while the layout inflates and the feed loads
+        imageLoader = ImageLoader.getInstance(this);
+        // Thumbnails are cropped to the exact cell size in the background, so cells draw them unscaled
+        int cellMargin = getResources().getDimensionPixelSize(R.dimen.grid_item_margin);
+        imageLoader.setTargetSize(BitmapUtils.calculateImageWidth(this, GRID_COLUMN_COUNT) - 2 * cellMargin,
+                getResources().getDimensionPixelSize(R.dimen.grid_item_image_height));
+        imageLoader.warmUp();
+
         setContentView(R.layout.activity_main);
 
         recyclerView = findViewById(R.id.imageRecyclerView);
         progressBar = findViewById(R.id.progressBar);
-        apiService = new ImageApiService();
+        apiService = new ImageApiService(new FeedCache(this));
 
-        // Set up memory cache (Adjust the size as needed)
-        final int maxMemory = (int) (Runtime.getRuntime().maxMemory() / 1024);
-        final int cacheSize = maxMemory / 8; // Use 1/8th of the available memory
-
-        memoryCache = new LruCache<String, Bitmap>(cacheSize) {
-            @Override
-            protected int sizeOf(String key, Bitmap bitmap) {
-                return bitmap.getByteCount() / 1024; // Size in KB
-            }
-        };
+        // Keep the feed and its thumbnails fresh in the background while charging on unmetered networks
+        FeedSyncJobService.schedule(this);
 
         setupRecyclerView();
         loadImages();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        // Remember what was on screen for the next launch's warm-up, the colors of what was decoded
+        // and which URLs share which files on disk
+        imageLoader.saveHotSet();
+        imageLoader.savePlaceholders();
+        imageLoader.saveDiskIndex();
+
+        // Log the pipeline metrics collected so far
+        ImageMetrics metrics = Instrumentation.metrics();
+        if (metrics instanceof HistogramImageMetrics) {
+            Log.i("ImageMetrics", ((HistogramImageMetrics) metrics).dump());
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        // Nothing is left to display the pending images in
+        if (imageLoader != null && !isChangingConfigurations()) {
+            imageLoader.cancelAll();
+        }
+    }
+
     // Method to set up RecyclerView with GridLayoutManager
     private void setupRecyclerView() {
-        imageAdapter = new ImageAdapter(this, new ArrayList<>());
+        imageAdapter = new ImageAdapter(this, new ArrayList<>(), imageLoader);
         GridLayoutManager layoutManager = new GridLayoutManager(this, GRID_COLUMN_COUNT);
 
         recyclerView.setLayoutManager(layoutManager);
@@ -68,26 +109,38 @@ public class MainActivity extends AppCompatActivity {
 
         // Optimization for smooth scrolling
         recyclerView.setHasFixedSize(true);
-        recyclerView.setItemViewCacheSize(20);
-        recyclerView.setDrawingCacheEnabled(true);
-        recyclerView.setDrawingCacheQuality(View.DRAWING_CACHE_QUALITY_HIGH);
-
-        // Defer image loading while scrolling fast
-        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-            @Override
-            public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
-                super.onScrollStateChanged(recyclerView, newState);
-                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
-                    imageAdapter.notifyDataSetChanged(); // Load images when scrolling stops
-                }
-            }
-        });
+        // Keep the last row that scrolled off bound, so a short scroll back reattaches it without rebinding
+        recyclerView.setItemViewCacheSize(GRID_COLUMN_COUNT);
+        // The pool holds a whole screen plus a row, so updateItems rebinds every visible cell instead of
+        // re-inflating all but the default five
+        int cellMargin = getResources().getDimensionPixelSize(R.dimen.grid_item_margin);
+        int rowHeight = getResources().getDimensionPixelSize(R.dimen.grid_item_image_height) + 2 * cellMargin;
+        int visibleCells = BitmapUtils.calculateVisibleRows(this, rowHeight) * GRID_COLUMN_COUNT;
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(0, visibleCells + GRID_COLUMN_COUNT);
+
+        // Inflate the first screen plus the row the first scroll brings in while the feed loads
+        imageAdapter.preinflate(recyclerView, visibleCells + GRID_COLUMN_COUNT);
     }
 
     // Method to fetch images from API and update UI
     private void loadImages() {
         progressBar.setVisibility(View.VISIBLE); // Show loading indicator
 
+        // Show the last feed (from the previous session or the background sync) right away
+        apiService.getCachedImages(new ImageApiService.ImageApiCallback() {
+            @Override
+            public void onSuccess(List<ImageItem> images) {
+                if (imageAdapter.getItemCount() == 0) {
+                    imageAdapter.updateItems(images);
+                    progressBar.setVisibility(View.GONE);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+            }
+        });
+
         // Check for internet connection before fetching images
         if (!NetworkUtils.isNetworkAvailable(this)) {
             progressBar.setVisibility(View.GONE);
@@ -1,99 +1,95 @@
 package com.example.assignment_app.adapter;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.os.AsyncTask;
-import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 
 import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.assignment_app.R;
 import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.ImageLoader;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.HashMap;
+import java.util.ArrayDeque;
 import java.util.List;
-import java.util.Map;
+import java.util.Queue;
 
 public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHolder> {
 
     private final Context context;
     private List<ImageItem> imageItems;
 
-    // LRU (Least Recently Used) Cache for storing images in memory
-    private final LruCache<String, Bitmap> memoryCache;
+    // Loader that owns the memory, encoded and disk caches and the download threads
+    private final ImageLoader imageLoader;
 
-    // Directory for caching images on disk
-    private final File cacheDir;
+    // Cells inflated in the background, used by onCreateViewHolder before inflating on the main thread
+    private final Queue<View> preinflatedViews = new ArrayDeque<>();
+    private AsyncLayoutInflater asyncInflater;
+    private int preinflateRemaining; // Not yet handed to the inflater
+    private int pendingInflations; // Handed to the inflater, not finished
 
-    // Map to track which ImageView is displaying which image URL
-    private final Map<ImageView, String> imageViewMap = new HashMap<>();
+    // AsyncLayoutInflater blocks the caller once this many requests are waiting, so keep fewer in flight
+    private static final int MAX_PENDING_INFLATIONS = 8;
 
-    public ImageAdapter(Context context, List<ImageItem> imageItems) {
+    public ImageAdapter(Context context, List<ImageItem> imageItems, ImageLoader imageLoader) {
         this.context = context;
         this.imageItems = imageItems;
-
-        // Initialize memory cache with 1/8th of available memory
-        final int maxMemory = (int) (Runtime.getRuntime().maxMemory() / 1024);
-        final int cacheSize = maxMemory / 8;
-        memoryCache = new LruCache<>(cacheSize);
-
-        // Create disk cache directory
-        cacheDir = new File(context.getCacheDir(), "image_cache");
-        if (!cacheDir.exists()) {
-            cacheDir.mkdirs();
-        }
+        this.imageLoader = imageLoader;
     }
 
     @NonNull
     @Override
     public ImageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        // Inflate the item layout for each image
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_image, parent, false);
+        View view = preinflatedViews.poll();
+        if (view == null) {
+            // Inflate the item layout for each image
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_image, parent, false);
+        }
         return new ImageViewHolder(view);
     }
 
+    // Inflates count cells on a background thread ahead of the first layout and fling.
+    // Call from the main thread with the RecyclerView as parent, so the cells get its layout params.
+    // The background inflater skips AppCompat's view substitution, which item_image doesn't need.
+    public void preinflate(ViewGroup parent, int count) {
+        if (asyncInflater == null) {
+            asyncInflater = new AsyncLayoutInflater(context);
+        }
+        preinflateRemaining += count;
+        fillInflaterQueue(parent);
+    }
+
+    // Hands cells to the background inflater up to the limit; each finished one refills the queue
+    private void fillInflaterQueue(ViewGroup parent) {
+        while (preinflateRemaining > 0 && pendingInflations < MAX_PENDING_INFLATIONS) {
+            preinflateRemaining--;
+            pendingInflations++;
+            asyncInflater.inflate(R.layout.item_image, parent, (view, resid, root) -> {
+                pendingInflations--;
+                preinflatedViews.add(view);
+                fillInflaterQueue(parent);
+            });
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
         ImageItem imageItem = imageItems.get(position);
 
-        // Construct full image URL
-        String imageUrl = imageItem.getThumbnail().getDomain() + "/" +
-                imageItem.getThumbnail().getBasePath() + "/0/" +
-                imageItem.getThumbnail().getKey();
-
-        // Store the ImageView and corresponding URL in the map
-        imageViewMap.put(holder.imageView, imageUrl);
-
-        // Try to load from memory cache first
-        Bitmap cachedBitmap = memoryCache.get(imageUrl);
-        if (cachedBitmap != null) {
-            holder.imageView.setImageBitmap(cachedBitmap);
-        } else {
-            // Try to load from disk cache
-            File imageFile = new File(cacheDir, String.valueOf(imageUrl.hashCode()));
-            if (imageFile.exists()) {
-                Bitmap bitmap = BitmapFactory.decodeFile(imageFile.getAbsolutePath());
-                if (bitmap != null) {
-                    memoryCache.put(imageUrl, bitmap); // Store in memory cache
-                    holder.imageView.setImageBitmap(bitmap);
-                    return;
-                }
-            }
-            // If not found in cache, load asynchronously from the network
-            new ImageLoaderTask(holder.imageView, imageUrl).execute();
-        }
+        // Full image URL and its cache key are memoized on the item. The loader serves memory
+        // hits synchronously and does everything else (including disk reads) off the UI thread.
+        imageLoader.loadImage(imageItem.getThumbnail().getThumbnailUrl(),
+                imageItem.getThumbnail().getCacheKey(), holder.imageView);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull ImageViewHolder holder) {
+        // Stop loading images for cells that scrolled off screen
+        imageLoader.cancelPotentialTask(holder.imageView);
     }
 
     @Override
@@ -116,60 +112,4 @@ public class ImageAdapter extends RecyclerView.Adapter<ImageAdapter.ImageViewHol
             imageView = itemView.findViewById(R.id.imageView);
         }
     }
-
-    // AsyncTask to load images from the internet
-    private class ImageLoaderTask extends AsyncTask<Void, Void, Bitmap> {
-        private final ImageView imageView;
-        private final String imageUrl;
-
-        ImageLoaderTask(ImageView imageView, String imageUrl) {
-            this.imageView = imageView;
-            this.imageUrl = imageUrl;
-        }
-
-        @Override
-        protected Bitmap doInBackground(Void... voids) {
-            try {
-                // If the task is canceled or the ImageView has been reused, return null
-                if (!imageViewMap.get(imageView).equals(imageUrl)) return null;
-
-                // Open a connection to the image URL
-                URL url = new URL(imageUrl);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setDoInput(true);
-                connection.connect();
-
-                // Read image data from the input stream
-                InputStream input = connection.getInputStream();
-                Bitmap bitmap = BitmapFactory.decodeStream(input);
-
-                if (bitmap != null) {
-                    // Store the bitmap in memory cache
-                    memoryCache.put(imageUrl, bitmap);
-
-                    // Store the bitmap in disk cache
-                    File imageFile = new File(cacheDir, String.valueOf(imageUrl.hashCode()));
-                    FileOutputStream outputStream = new FileOutputStream(imageFile);
-                    bitmap.compress(Bitmap.CompressFormat.JPEG, 90, outputStream);
-                    outputStream.flush();
-                    outputStream.close();
-                }
-                return bitmap;
-            } catch (Exception e) {
-                e.printStackTrace();
-                return null;
-            }
-        }
-
-        @Override
-        protected void onPostExecute(Bitmap bitmap) {
-            // Ensure the correct image is set to the correct ImageView
-            if (bitmap != null && imageViewMap.get(imageView).equals(imageUrl)) {
-                imageView.setImageBitmap(bitmap);
-            } else {
-                // Set a placeholder image in case of failure
-                imageView.setImageResource(R.drawable.error_placeholder);
-            }
-        }
-    }
 }
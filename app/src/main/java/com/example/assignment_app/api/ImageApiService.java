@@ -1,20 +1,51 @@
 package com.example.assignment_app.api;
 
 import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.ApiEndpoint;
+import com.example.assignment_app.util.FeedCache;
+import com.example.assignment_app.util.HttpTransport;
+import com.example.assignment_app.util.ImageMetrics;
+import com.example.assignment_app.util.Instrumentation;
 import com.example.assignment_app.util.NetworkUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import android.os.Handler;
 import android.os.Looper;
+import android.util.Log;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 public class ImageApiService {
-    // API endpoint URL for fetching images
-    private static final String API_URL = "https://acharyaprashant.org/api/v2/content/misc/media-coverages?limit=100";
+    // API endpoint and transport used for fetching images
+    private final ApiEndpoint endpoint;
+    private final HttpTransport transport;
+    // Where fetched feeds are kept for offline and instant starts, null to keep nothing
+    private final FeedCache feedCache;
+
+    public ImageApiService() {
+        this(ApiEndpoint.DEFAULT, NetworkUtils.getDefaultTransport());
+    }
+
+    // Creates a service that keeps the last fetched feed in feedCache
+    public ImageApiService(FeedCache feedCache) {
+        this(ApiEndpoint.DEFAULT, NetworkUtils.getDefaultTransport(), feedCache);
+    }
+
+    // Creates a service that fetches from another endpoint (mirror, staging, local stand-in)
+    public ImageApiService(ApiEndpoint endpoint, HttpTransport transport) {
+        this(endpoint, transport, null);
+    }
+
+    public ImageApiService(ApiEndpoint endpoint, HttpTransport transport, FeedCache feedCache) {
+        this.endpoint = endpoint;
+        this.transport = transport;
+        this.feedCache = feedCache;
+    }
 
     // Interface to handle API responses asynchronously
     public interface ImageApiCallback {
@@ -27,40 +58,7 @@ public class ImageApiService {
         // Creating a background thread to fetch data without blocking the UI
         new Thread(() -> {
             try {
-                // Fetching JSON response from the API
-                String jsonResponse = NetworkUtils.fetchData(API_URL);
-
-                // Converting the response string into a JSON array
-                JSONArray jsonArray = new JSONArray(jsonResponse);
-                List<ImageItem> imageItems = new ArrayList<>();
-
-                // Iterating through each JSON object in the array
-                for (int i = 0; i < jsonArray.length(); i++) {
-                    JSONObject jsonObj = jsonArray.getJSONObject(i);
-
-                    // Extracting image ID and title
-                    String id = jsonObj.getString("id");
-                    String title = jsonObj.getString("title");
-
-                    // Extracting thumbnail details
-                    JSONObject thumbObj = jsonObj.getJSONObject("thumbnail");
-                    String domain = thumbObj.getString("domain");
-                    String basePath = thumbObj.getString("basePath");
-                    String key = thumbObj.getString("key");
-
-                    // Extracting available image qualities
-                    JSONArray qualitiesArray = thumbObj.getJSONArray("qualities");
-                    List<Integer> qualities = new ArrayList<>();
-                    for (int j = 0; j < qualitiesArray.length(); j++) {
-                        qualities.add(qualitiesArray.getInt(j));
-                    }
-
-                    // Creating a Thumbnail object
-                    ImageItem.Thumbnail thumbnail = new ImageItem.Thumbnail(domain, basePath, key, qualities);
-
-                    // Creating an ImageItem object and adding it to the list
-                    imageItems.add(new ImageItem(id, title, thumbnail));
-                }
+                List<ImageItem> imageItems = fetchImages(count);
 
                 // Ensuring callback execution happens on the main thread
                 Handler mainHandler = new Handler(Looper.getMainLooper());
@@ -68,9 +66,88 @@ public class ImageApiService {
 
             } catch (final Exception e) {
                 // Handling errors and sending them to the callback on the main thread
+                Instrumentation.metrics().increment(ImageMetrics.Counter.REQUEST_FAILED, 1);
                 Handler mainHandler = new Handler(Looper.getMainLooper());
                 mainHandler.post(() -> callback.onError(e));
             }
         }).start(); // Start the background thread
     }
+
+    // Fetches and parses the feed on the calling thread, keeping the JSON in the feed cache
+    public List<ImageItem> fetchImages(int count) throws IOException, JSONException {
+        // Fetching JSON response from the API
+        String jsonResponse = NetworkUtils.fetchData(transport, endpoint.mediaCoveragesUrl(count));
+
+        // Parsing the response into image items
+        ImageMetrics metrics = Instrumentation.metrics();
+        long parseStart = System.nanoTime();
+        List<ImageItem> imageItems = parseImages(jsonResponse);
+        metrics.recordStage(ImageMetrics.Stage.FEED_PARSE, System.nanoTime() - parseStart);
+
+        // Only a feed that parsed is worth keeping
+        if (feedCache != null) {
+            try {
+                feedCache.write(jsonResponse);
+            } catch (IOException e) {
+                Log.e("ImageApiService", "Cannot cache feed", e);
+            }
+        }
+        return imageItems;
+    }
+
+    // Delivers the cached feed on the main thread; nothing is delivered if there is none
+    public void getCachedImages(ImageApiService.ImageApiCallback callback) {
+        if (feedCache == null) {
+            return;
+        }
+        new Thread(() -> {
+            try {
+                String jsonResponse = feedCache.read();
+                if (jsonResponse == null) {
+                    return;
+                }
+                List<ImageItem> imageItems = parseImages(jsonResponse);
+                new Handler(Looper.getMainLooper()).post(() -> callback.onSuccess(imageItems));
+            } catch (Exception e) {
+                // A stale or damaged cache is not worth reporting; the network fetch follows
+                Log.e("ImageApiService", "Cannot read cached feed", e);
+            }
+        }).start();
+    }
+
+    // Parses the media-coverages JSON array into image items
+    public static List<ImageItem> parseImages(String jsonResponse) throws JSONException {
+        // Converting the response string into a JSON array
+        JSONArray jsonArray = new JSONArray(jsonResponse);
+        List<ImageItem> imageItems = new ArrayList<>(jsonArray.length());
+
+        // Iterating through each JSON object in the array
+        for (int i = 0; i < jsonArray.length(); i++) {
+            JSONObject jsonObj = jsonArray.getJSONObject(i);
+
+            // Extracting image ID and title
+            String id = jsonObj.getString("id");
+            String title = jsonObj.getString("title");
+
+            // Extracting thumbnail details
+            JSONObject thumbObj = jsonObj.getJSONObject("thumbnail");
+            String domain = thumbObj.getString("domain");
+            String basePath = thumbObj.getString("basePath");
+            String key = thumbObj.getString("key");
+
+            // Extracting available image qualities
+            JSONArray qualitiesArray = thumbObj.getJSONArray("qualities");
+            List<Integer> qualities = new ArrayList<>(qualitiesArray.length());
+            for (int j = 0; j < qualitiesArray.length(); j++) {
+                qualities.add(qualitiesArray.getInt(j));
+            }
+
+            // Creating a Thumbnail object
+            ImageItem.Thumbnail thumbnail = new ImageItem.Thumbnail(domain, basePath, key, qualities);
+
+            // Creating an ImageItem object and adding it to the list
+            imageItems.add(new ImageItem(id, title, thumbnail));
+        }
+        return imageItems;
+    }
 }
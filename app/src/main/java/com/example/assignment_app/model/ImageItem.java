@@ -1,5 +1,7 @@
 package com.example.assignment_app.model;
 
+import com.example.assignment_app.util.CacheKeys;
+
 import java.util.List;
 
 public class ImageItem {
@@ -34,6 +36,8 @@ public class ImageItem {
         private String basePath; // Base path for the image storage
         private String key; // Unique key identifying the image file
         private List<Integer> qualities; // List of available image quality resolutions
+        private String thumbnailUrl; // Memoized URL of the grid thumbnail
+        private String cacheKey; // Memoized cache key derived from thumbnailUrl
 
         // Constructor to initialize a Thumbnail object
         public Thumbnail(String domain, String basePath, String key, List<Integer> qualities) {
@@ -64,5 +68,25 @@ public class ImageItem {
         public String getImageUrl() {
             return domain + "/" + basePath + "/" + key;
         }
+
+        // Returns the URL of the grid thumbnail (quality 0), built once per item
+        public String getThumbnailUrl() {
+            String url = thumbnailUrl;
+            if (url == null) {
+                url = domain + "/" + basePath + "/0/" + key;
+                thumbnailUrl = url;
+            }
+            return url;
+        }
+
+        // Returns the cache key for the grid thumbnail, hashed once per item
+        public String getCacheKey() {
+            String hashKey = cacheKey;
+            if (hashKey == null) {
+                hashKey = CacheKeys.forUrl(getThumbnailUrl());
+                cacheKey = hashKey;
+            }
+            return hashKey;
+        }
     }
 }
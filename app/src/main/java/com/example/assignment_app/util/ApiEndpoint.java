@@ -0,0 +1,34 @@
+package com.example.assignment_app.util;
+
+// ApiEndpoint - Where the media-coverages feed is fetched from
+public final class ApiEndpoint {
+
+    public static final String DEFAULT_BASE_URL = "https://acharyaprashant.org";
+    public static final String MEDIA_COVERAGES_PATH = "/api/v2/content/misc/media-coverages";
+    public static final int DEFAULT_LIMIT = 100;
+
+    // The live API
+    public static final ApiEndpoint DEFAULT = new ApiEndpoint(DEFAULT_BASE_URL);
+
+    private final String baseUrl; // Scheme and host, without a trailing slash
+    private final String mediaCoveragesPath;
+
+    // Endpoint on another host (mirror, staging CDN, local stand-in) with the live API's paths
+    public ApiEndpoint(String baseUrl) {
+        this(baseUrl, MEDIA_COVERAGES_PATH);
+    }
+
+    public ApiEndpoint(String baseUrl, String mediaCoveragesPath) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.mediaCoveragesPath = mediaCoveragesPath;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // URL of the media-coverages feed returning at most limit items
+    public String mediaCoveragesUrl(int limit) {
+        return baseUrl + mediaCoveragesPath + "?limit=" + limit;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.assignment_app.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// AtomicFiles - Replaces a file's contents all at once: writes a temp file next to it, syncs it to
+// disk, then renames it over the original. Readers see the old or the new contents, never a mix,
+// even if the process or the device dies mid-write.
+public final class AtomicFiles {
+
+    // Writes the new contents; must not close the stream
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    public static void write(File file, Content content) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        boolean written = false;
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            OutputStream buffered = new BufferedOutputStream(out);
+            content.writeTo(buffered);
+            buffered.flush();
+            out.getFD().sync(); // Without it the rename can reach the disk before the data
+            written = true;
+        } finally {
+            if (!written) {
+                temp.delete();
+            }
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+
+// BitmapDecoder - Turns encoded image bytes into a bitmap sized for display.
+// Pick an implementation with BitmapUtils.createDecoder().
+public interface BitmapDecoder {
+
+    // Decodes data into a bitmap that covers reqWidth x reqHeight with the aspect ratio kept, as
+    // small as the backend allows, so a CenterCrop to that size has as little left to do as possible.
+    // Returns null if the data isn't a decodable image.
+    Bitmap decode(byte[] data, int reqWidth, int reqHeight);
+}
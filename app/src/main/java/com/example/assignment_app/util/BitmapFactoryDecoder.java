@@ -0,0 +1,14 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+// BitmapFactoryDecoder - Decodes with BitmapFactory: one pass for the bounds, one for the pixels,
+// downscaled by the largest power of two that still covers the request. Works on every API level.
+public class BitmapFactoryDecoder implements BitmapDecoder {
+
+    @Override
+    public Bitmap decode(byte[] data, int reqWidth, int reqHeight) {
+        return BitmapUtils.decodeSampledBitmapFromByteArray(data, reqWidth, reqHeight);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.assignment_app.util;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.os.Build;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -26,6 +27,14 @@ public class BitmapUtils {
         return inSampleSize;
     }
 
+    // Returns the best decoder for this device: ImageDecoder on API 28+, BitmapFactory before
+    public static BitmapDecoder createDecoder() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return new ImageDecoderDecoder();
+        }
+        return new BitmapFactoryDecoder();
+    }
+
     // Decodes a bitmap from a byte array with optimized sampling
     public static Bitmap decodeSampledBitmapFromByteArray(byte[] imageData, int reqWidth, int reqHeight) {
         final BitmapFactory.Options options = new BitmapFactory.Options();
@@ -70,4 +79,10 @@ public class BitmapUtils {
         int screenWidth = context.getResources().getDisplayMetrics().widthPixels; // Get screen width
         return screenWidth / numColumns; // Calculate column width
     }
+
+    // Calculates how many grid rows of rowHeight pixels fit on screen, counting a partly visible one
+    public static int calculateVisibleRows(Context context, int rowHeight) {
+        int screenHeight = context.getResources().getDisplayMetrics().heightPixels;
+        return (screenHeight + rowHeight - 1) / rowHeight;
+    }
 }
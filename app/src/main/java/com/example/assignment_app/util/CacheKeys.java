@@ -0,0 +1,156 @@
+package com.example.assignment_app.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// CacheKeys - Derives disk/memory cache keys from image URLs.
+// Uses MurmurHash3 (x64, 128-bit) over the UTF-16 code units of the URL, so no
+// MessageDigest lookup, no getBytes() copy and no String.format() per byte.
+public final class CacheKeys {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final long SEED = 0x9747b28cL;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Length of every key returned by forUrl (128 bits as lowercase hex)
+    public static final int KEY_LENGTH = 32;
+    // Length of every key returned by forContent (256 bits as lowercase hex)
+    public static final int CONTENT_KEY_LENGTH = 64;
+
+    // Per-thread scratch buffer for hex encoding, so the only allocation is the result String
+    private static final ThreadLocal<char[]> HEX_BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[KEY_LENGTH];
+        }
+    };
+
+    private CacheKeys() {
+    }
+
+    // Generates a 32 character lowercase hex key for the given URL
+    public static String forUrl(String url) {
+        final int length = url.length();
+        final int blockEnd = length & ~7; // 8 chars (16 bytes) per block
+        long h1 = SEED;
+        long h2 = SEED;
+
+        // Body
+        for (int i = 0; i < blockEnd; i += 8) {
+            long k1 = pack(url, i);
+            long k2 = pack(url, i + 4);
+
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        // Tail - up to 7 remaining chars
+        final int remaining = length - blockEnd;
+        long k1 = 0;
+        long k2 = 0;
+        for (int j = 0; j < remaining; j++) {
+            long c = url.charAt(blockEnd + j);
+            if (j < 4) {
+                k1 |= c << (16 * j);
+            } else {
+                k2 |= c << (16 * (j - 4));
+            }
+        }
+        if (remaining > 4) {
+            k2 *= C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+        }
+        if (remaining > 0) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+        }
+
+        // Finalization
+        final long byteLength = (long) length * 2;
+        h1 ^= byteLength;
+        h2 ^= byteLength;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        return toHex(h1, h2);
+    }
+
+    // Generates a 64 character lowercase hex key for the given bytes. SHA-256 rather than MurmurHash:
+    // URLs sharing a content key share a file, so a collision would show one image for another.
+    // Hashing runs once per download, off the main thread.
+    public static String forContent(byte[] data) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e); // Every Java platform must provide SHA-256
+        }
+        byte[] hash = digest.digest(data);
+        char[] out = new char[CONTENT_KEY_LENGTH];
+        for (int i = 0; i < hash.length; i++) {
+            out[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            out[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(out);
+    }
+
+    // Whether key was returned by forContent rather than forUrl
+    public static boolean isContentKey(String key) {
+        return key.length() == CONTENT_KEY_LENGTH;
+    }
+
+    // Packs four UTF-16 code units into a little-endian 64-bit word
+    private static long pack(String s, int i) {
+        return (long) s.charAt(i)
+                | ((long) s.charAt(i + 1) << 16)
+                | ((long) s.charAt(i + 2) << 32)
+                | ((long) s.charAt(i + 3) << 48);
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    // Hex-encodes two longs into the thread's scratch buffer
+    private static String toHex(long hi, long lo) {
+        char[] out = HEX_BUFFER.get();
+        for (int i = 15; i >= 0; i--) {
+            out[i] = HEX_DIGITS[(int) (hi & 0xf)];
+            hi >>>= 4;
+        }
+        for (int i = 31; i >= 16; i--) {
+            out[i] = HEX_DIGITS[(int) (lo & 0xf)];
+            lo >>>= 4;
+        }
+        return new String(out, 0, KEY_LENGTH);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+// CenterCrop - Scales and crops a bitmap to exactly width x height, keeping the center,
+// the same result ImageView's centerCrop would draw. Done once off the main thread, so the
+// view draws 1:1 and the memory cache holds only displayed pixels.
+public final class CenterCrop {
+
+    private final int width;
+    private final int height;
+    private final String key;
+
+    public CenterCrop(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid target size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.key = "cc" + width + "x" + height;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Identifies the transform in cache keys
+    public String key() {
+        return key;
+    }
+
+    // Returns the transformed bitmap; source is returned as is when it already has the target size
+    public Bitmap apply(Bitmap source) {
+        if (source.getWidth() == width && source.getHeight() == height) {
+            return source;
+        }
+        Bitmap result = Bitmap.createBitmap(width, height,
+                source.getConfig() != null ? source.getConfig() : Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(result);
+        canvas.drawBitmap(source, sourceRect(source.getWidth(), source.getHeight()),
+                new Rect(0, 0, width, height), new Paint(Paint.FILTER_BITMAP_FLAG));
+        return result;
+    }
+
+    // Region of a sourceWidth x sourceHeight image that maps onto the target
+    Rect sourceRect(int sourceWidth, int sourceHeight) {
+        // Compare aspect ratios without division: source wider than target means crop the sides
+        if ((long) sourceWidth * height > (long) width * sourceHeight) {
+            int cropWidth = (int) ((long) width * sourceHeight / height);
+            int left = (sourceWidth - cropWidth) / 2;
+            return new Rect(left, 0, left + cropWidth, sourceHeight);
+        } else {
+            int cropHeight = (int) ((long) height * sourceWidth / width);
+            int top = (sourceHeight - cropHeight) / 2;
+            return new Rect(0, top, sourceWidth, top + cropHeight);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.assignment_app.util;
+
+// ConcurrencyController - AIMD limit on parallel thumbnail downloads.
+// Starts from a per-transport guess and re-evaluates once per window of completed downloads:
+//  - transport failures (timeouts, resets) halve the limit,
+//  - average latency above LATENCY_TOLERANCE x the baseline (queueing on the link) cuts it by 20%,
+//  - otherwise it grows by one while aggregate bytes/sec keeps up, and shrinks by one when
+//    the extra streams made aggregate throughput worse.
+// The baseline is the best window-minimum latency seen, drifting up slowly so it follows the link.
+public class ConcurrencyController {
+
+    public static final int MIN_LIMIT = 1;
+    public static final int MAX_LIMIT = 12;
+
+    private static final int MIN_WINDOW_SAMPLES = 4;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double FAILURE_BACKOFF = 0.5;
+    private static final double CONGESTION_BACKOFF = 0.8;
+    private static final double THROUGHPUT_TOLERANCE = 0.95;
+    private static final double BASELINE_DRIFT = 1.05;
+
+    private int limit;
+    private int inFlight;
+    private double baselineLatency = Double.NaN; // Nanoseconds
+    private double lastThroughput; // Bytes per second over the last window
+
+    // Current window
+    private int windowSamples;
+    private long windowStart;
+    private long windowBytes;
+    private long windowLatencySum;
+    private int windowSuccesses;
+    private long windowMinLatency = Long.MAX_VALUE;
+    private boolean windowFailed;
+
+    public ConcurrencyController(int transportType) {
+        limit = initialLimit(transportType);
+    }
+
+    // Starting concurrency for a transport type (NetworkUtils.TRANSPORT_*)
+    public static int initialLimit(int transportType) {
+        switch (transportType) {
+            case NetworkUtils.TRANSPORT_ETHERNET:
+                return 8;
+            case NetworkUtils.TRANSPORT_WIFI:
+                return 6;
+            case NetworkUtils.TRANSPORT_CELLULAR:
+                return 3;
+            default:
+                return 2;
+        }
+    }
+
+    // Starts over from the initial limit of a new transport, forgetting what was learned
+    public synchronized void reset(int transportType) {
+        limit = initialLimit(transportType);
+        baselineLatency = Double.NaN;
+        lastThroughput = 0;
+        clearWindow();
+        notifyAll();
+    }
+
+    // Blocks until a download slot is free
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    // Frees a slot taken by acquire()
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    // Records a finished download; success is false for transport failures only
+    public void onComplete(long latencyNanos, long bytes, boolean success) {
+        onComplete(latencyNanos, bytes, success, System.nanoTime());
+    }
+
+    synchronized void onComplete(long latencyNanos, long bytes, boolean success, long nowNanos) {
+        if (windowSamples == 0) {
+            windowStart = nowNanos - latencyNanos;
+        }
+        windowSamples++;
+        if (success) {
+            windowSuccesses++;
+            windowBytes += bytes;
+            windowLatencySum += latencyNanos;
+            windowMinLatency = Math.min(windowMinLatency, latencyNanos);
+        } else {
+            windowFailed = true;
+        }
+        if (windowSamples < Math.max(limit, MIN_WINDOW_SAMPLES)) {
+            return;
+        }
+
+        double throughput = windowBytes * 1e9 / Math.max(1, nowNanos - windowStart);
+        if (windowFailed || windowSuccesses == 0) {
+            limit = Math.max(MIN_LIMIT, (int) (limit * FAILURE_BACKOFF));
+        } else {
+            baselineLatency = Double.isNaN(baselineLatency)
+                    ? windowMinLatency
+                    : Math.min(baselineLatency * BASELINE_DRIFT, windowMinLatency);
+            double averageLatency = (double) windowLatencySum / windowSuccesses;
+
+            if (averageLatency > baselineLatency * LATENCY_TOLERANCE) {
+                limit = Math.max(MIN_LIMIT, Math.min(limit - 1, (int) (limit * CONGESTION_BACKOFF)));
+            } else if (throughput >= lastThroughput * THROUGHPUT_TOLERANCE) {
+                limit = Math.min(MAX_LIMIT, limit + 1);
+            } else {
+                limit = Math.max(MIN_LIMIT, limit - 1);
+            }
+        }
+        lastThroughput = throughput;
+        clearWindow();
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    // Aggregate download rate over the last completed window, in bytes per second
+    public synchronized double getThroughput() {
+        return lastThroughput;
+    }
+
+    private void clearWindow() {
+        windowSamples = 0;
+        windowBytes = 0;
+        windowLatencySum = 0;
+        windowSuccesses = 0;
+        windowMinLatency = Long.MAX_VALUE;
+        windowFailed = false;
+    }
+}
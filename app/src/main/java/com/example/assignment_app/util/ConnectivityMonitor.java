@@ -0,0 +1,87 @@
+package com.example.assignment_app.util;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.util.Log;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// ConnectivityMonitor - Caches the state of the default network from NetworkCallback updates,
+// so hot paths read a volatile field instead of querying ConnectivityManager per request.
+public class ConnectivityMonitor {
+
+    // Notified on the ConnectivityManager callback thread whenever the state changes
+    public interface Listener {
+        void onConnectivityChanged(boolean connected, int transportType);
+    }
+
+    private final ConnectivityManager connectivityManager;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile int transportType;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onCapabilitiesChanged(Network network, NetworkCapabilities capabilities) {
+            if (capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)) {
+                update(NetworkUtils.getTransportType(capabilities));
+            } else {
+                update(NetworkUtils.TRANSPORT_NONE);
+            }
+        }
+
+        @Override
+        public void onLost(Network network) {
+            update(NetworkUtils.TRANSPORT_NONE);
+        }
+    };
+
+    public ConnectivityMonitor(Context context) {
+        connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        transportType = NetworkUtils.getTransportType(context);
+        if (connectivityManager != null) {
+            connectivityManager.registerDefaultNetworkCallback(networkCallback);
+        }
+    }
+
+    public boolean isConnected() {
+        return transportType != NetworkUtils.TRANSPORT_NONE;
+    }
+
+    // Transport of the default network, NetworkUtils.TRANSPORT_NONE while offline
+    public int getTransportType() {
+        return transportType;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Stops receiving network updates; the cached state freezes at its last value
+    public void unregister() {
+        if (connectivityManager == null) {
+            return;
+        }
+        try {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+        } catch (IllegalArgumentException e) {
+            Log.w("ConnectivityMonitor", "Network callback was not registered", e);
+        }
+    }
+
+    private void update(int newTransportType) {
+        if (newTransportType == transportType) {
+            return;
+        }
+        transportType = newTransportType;
+        boolean connected = isConnected();
+        for (Listener listener : listeners) {
+            listener.onConnectivityChanged(connected, newTransportType);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.assignment_app.util;
+
+import com.jakewharton.disklrucache.DiskLruCache;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ContentStore - Disk tier that stores each distinct image once, keyed by a hash of its bytes
+// (CacheKeys.forContent), with an index from URL keys to content keys on top.
+// URLs serving identical bytes share one entry, which is reference counted: removing the last URL
+// deletes it, and the DiskLruCache evicts it by LRU like any other entry. An index entry whose
+// content was evicted reads as a miss and is dropped; load() and save() drop all of them, and the
+// index keeps at most maxEntries URL keys, the least recently used going first.
+// The index is kept in memory; load() and save() persist it, callers run them off the main thread.
+public class ContentStore {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_INDEX_ENTRIES = 5000; // About 500 KB on disk
+
+    private final DiskLruCache cache;
+    private final File indexFile;
+    private final int maxEntries;
+    // URL key -> content key, least recently used first; guarded by itself, never held during I/O
+    private final LinkedHashMap<String, String> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Integer> refCounts = new HashMap<>(); // Content key -> URL keys; guarded by this
+    private volatile boolean dirty;
+
+    public ContentStore(DiskLruCache cache, File indexFile) {
+        this(cache, indexFile, MAX_INDEX_ENTRIES);
+    }
+
+    public ContentStore(DiskLruCache cache, File indexFile, int maxEntries) {
+        this.cache = cache;
+        this.indexFile = indexFile;
+        this.maxEntries = maxEntries;
+    }
+
+    // Underlying cache, for entries of other kinds (e.g. partial downloads); their keys must not be
+    // CacheKeys.CONTENT_KEY_LENGTH characters long
+    public DiskLruCache getCache() {
+        return cache;
+    }
+
+    // Content key the URL key was stored under, null if it isn't in the index; no I/O
+    public String getContentKey(String urlKey) {
+        synchronized (index) {
+            return index.get(urlKey);
+        }
+    }
+
+    // Encoded bytes stored for the URL key, null if there are none.
+    // Entries written before the store existed (keyed by URL) are moved into it on first read.
+    public byte[] get(String urlKey) throws IOException {
+        String contentKey = getContentKey(urlKey);
+        if (contentKey == null) {
+            byte[] legacy = read(urlKey);
+            if (legacy != null) {
+                put(urlKey, legacy);
+                cache.remove(urlKey);
+            }
+            return legacy;
+        }
+        byte[] data = read(contentKey);
+        if (data == null) {
+            unlink(urlKey, contentKey); // Evicted
+        }
+        return data;
+    }
+
+    // Encoded bytes stored under a content key, null if there are none
+    public byte[] getContent(String contentKey) throws IOException {
+        return read(contentKey);
+    }
+
+    // Whether get(urlKey) would find the bytes
+    public boolean contains(String urlKey) throws IOException {
+        String contentKey = getContentKey(urlKey);
+        return exists(contentKey != null ? contentKey : urlKey);
+    }
+
+    // Stores data for the URL key and returns its content key
+    public String put(String urlKey, byte[] data) throws IOException {
+        String contentKey = CacheKeys.forContent(data);
+        put(urlKey, contentKey, data);
+        return contentKey;
+    }
+
+    // Stores data, whose CacheKeys.forContent key the caller already computed, for the URL key.
+    // Bytes another URL already stored are linked, not written again.
+    public void put(String urlKey, String contentKey, byte[] data) throws IOException {
+        ImageMetrics metrics = Instrumentation.metrics();
+        if (exists(contentKey)) {
+            metrics.increment(ImageMetrics.Counter.BYTES_DEDUPLICATED, data.length);
+        } else {
+            DiskLruCache.Editor editor = cache.edit(contentKey);
+            if (editor != null) { // Otherwise another URL with the same bytes is writing it right now
+                OutputStream outputStream = editor.newOutputStream(0);
+                try {
+                    outputStream.write(data);
+                    outputStream.close();
+                    editor.commit();
+                    cache.flush();
+                    metrics.increment(ImageMetrics.Counter.BYTES_WRITTEN_TO_DISK, data.length);
+                } catch (IOException e) {
+                    editor.abort();
+                    throw e;
+                }
+            }
+        }
+        link(urlKey, contentKey);
+    }
+
+    // Removes the URL key; its content goes too once no other URL key refers to it
+    public void remove(String urlKey) throws IOException {
+        String contentKey = getContentKey(urlKey);
+        if (contentKey != null) {
+            unlink(urlKey, contentKey);
+        }
+    }
+
+    // Number of URL keys stored with this content key
+    public synchronized int getRefCount(String contentKey) {
+        Integer count = refCounts.get(contentKey);
+        return count != null ? count : 0;
+    }
+
+    // Number of URL keys in the index
+    public int size() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    // Merges the saved index into the store, then drops the entries whose content was evicted.
+    // Entries added since construction win and count as more recently used.
+    public void load() throws IOException {
+        if (!indexFile.exists()) {
+            return;
+        }
+        Map<String, String> saved = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                saved.put(in.readUTF(), in.readUTF());
+            }
+        }
+        synchronized (this) {
+            synchronized (index) {
+                for (Map.Entry<String, String> entry : index.entrySet()) {
+                    saved.remove(entry.getKey());
+                    saved.put(entry.getKey(), entry.getValue());
+                }
+                index.clear();
+                index.putAll(saved);
+            }
+            rebuildRefCounts();
+        }
+        prune();
+        synchronized (this) {
+            trim();
+        }
+    }
+
+    // Drops the entries whose content was evicted, then writes the index if it changed since the
+    // last save; atomic, see AtomicFiles
+    public void save() throws IOException {
+        prune();
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        Map<String, String> snapshot;
+        synchronized (index) {
+            snapshot = new LinkedHashMap<>(index);
+        }
+        try {
+            AtomicFiles.write(indexFile, stream -> {
+                DataOutputStream out = new DataOutputStream(stream);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, String> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+            });
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+
+    // Drops the URL keys whose content the DiskLruCache evicted; the cache doesn't report evictions,
+    // so each distinct content key is checked
+    private void prune() {
+        Set<String> contentKeys;
+        synchronized (index) {
+            contentKeys = new HashSet<>(index.values());
+        }
+        List<String> evicted = new ArrayList<>();
+        for (String contentKey : contentKeys) {
+            if (!isStored(contentKey)) {
+                evicted.add(contentKey);
+            }
+        }
+        if (evicted.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            boolean removed = false;
+            for (String contentKey : evicted) {
+                if (isStored(contentKey)) {
+                    continue; // Written again since the check above
+                }
+                synchronized (index) {
+                    removed |= index.values().removeIf(contentKey::equals);
+                }
+            }
+            if (removed) {
+                rebuildRefCounts();
+                dirty = true;
+            }
+        }
+    }
+
+    // Points the URL key at the content key, releasing whatever it pointed at before
+    private synchronized void link(String urlKey, String contentKey) throws IOException {
+        String previous;
+        synchronized (index) {
+            previous = index.put(urlKey, contentKey);
+        }
+        if (contentKey.equals(previous)) {
+            return;
+        }
+        retain(contentKey);
+        if (previous != null) {
+            release(previous);
+        }
+        trim();
+        dirty = true;
+    }
+
+    // Drops the URL key if it still points at the content key
+    private synchronized void unlink(String urlKey, String contentKey) throws IOException {
+        boolean removed;
+        synchronized (index) {
+            removed = index.remove(urlKey, contentKey);
+        }
+        if (removed) {
+            release(contentKey);
+            dirty = true;
+        }
+    }
+
+    // Drops the least recently used URL keys beyond maxEntries; caller holds this
+    private void trim() throws IOException {
+        while (true) {
+            String contentKey;
+            synchronized (index) {
+                if (index.size() <= maxEntries) {
+                    return;
+                }
+                Iterator<String> eldest = index.values().iterator();
+                contentKey = eldest.next();
+                eldest.remove();
+            }
+            release(contentKey);
+            dirty = true;
+        }
+    }
+
+    // Counts the URL keys per content key again from the index; caller holds this
+    private void rebuildRefCounts() {
+        refCounts.clear();
+        synchronized (index) {
+            for (String contentKey : index.values()) {
+                retain(contentKey);
+            }
+        }
+    }
+
+    private void retain(String contentKey) {
+        Integer count = refCounts.get(contentKey);
+        refCounts.put(contentKey, count != null ? count + 1 : 1);
+    }
+
+    // Deletes the content once nothing refers to it
+    private void release(String contentKey) throws IOException {
+        Integer count = refCounts.get(contentKey);
+        if (count == null || count <= 1) {
+            refCounts.remove(contentKey);
+            cache.remove(contentKey);
+        } else {
+            refCounts.put(contentKey, count - 1);
+        }
+    }
+
+    private byte[] read(String key) throws IOException {
+        DiskLruCache.Snapshot snapshot = cache.get(key);
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return NetworkUtils.readInputStream(snapshot.getInputStream(0));
+        } finally {
+            snapshot.close();
+        }
+    }
+
+    // Whether the cache holds a committed entry for the key, from its file alone: unlike get(), this
+    // neither journals a read nor refreshes the entry's LRU position
+    private boolean isStored(String key) {
+        return new File(cache.getDirectory(), key + ".0").exists();
+    }
+
+    private boolean exists(String key) throws IOException {
+        DiskLruCache.Snapshot snapshot = cache.get(key);
+        if (snapshot == null) {
+            return false;
+        }
+        snapshot.close();
+        return true;
+    }
+}
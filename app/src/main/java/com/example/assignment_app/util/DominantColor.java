@@ -0,0 +1,62 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+
+// DominantColor - Finds the most common color of an image, for placeholders that match it.
+// Works on an 8x8 downscale: pixels are bucketed at 3 bits per channel, and the result is
+// the average of the most populated bucket, so a large uniform area wins over the mean.
+public final class DominantColor {
+
+    private static final int SAMPLE_SIZE = 8;
+    private static final int NONE = 0; // Fully transparent, never a dominant color
+
+    private DominantColor() {
+    }
+
+    // Dominant opaque color of a bitmap as ARGB, 0 if it has no opaque pixels
+    public static int of(Bitmap bitmap) {
+        Bitmap sample = Bitmap.createScaledBitmap(bitmap, SAMPLE_SIZE, SAMPLE_SIZE, true);
+        int[] pixels = new int[SAMPLE_SIZE * SAMPLE_SIZE];
+        sample.getPixels(pixels, 0, SAMPLE_SIZE, 0, 0, SAMPLE_SIZE, SAMPLE_SIZE);
+        if (sample != bitmap) {
+            sample.recycle();
+        }
+        return fromPixels(pixels);
+    }
+
+    // Dominant opaque color of ARGB pixels, 0 if none is opaque
+    static int fromPixels(int[] pixels) {
+        int[] counts = new int[512];
+        int best = -1;
+        for (int pixel : pixels) {
+            if ((pixel >>> 24) < 0x80) {
+                continue; // Mostly transparent
+            }
+            int bucket = bucket(pixel);
+            if (++counts[bucket] > (best < 0 ? 0 : counts[best])) {
+                best = bucket;
+            }
+        }
+        if (best < 0) {
+            return NONE;
+        }
+
+        long red = 0;
+        long green = 0;
+        long blue = 0;
+        for (int pixel : pixels) {
+            if ((pixel >>> 24) >= 0x80 && bucket(pixel) == best) {
+                red += (pixel >> 16) & 0xff;
+                green += (pixel >> 8) & 0xff;
+                blue += pixel & 0xff;
+            }
+        }
+        int count = counts[best];
+        return 0xff000000 | (int) (red / count) << 16 | (int) (green / count) << 8 | (int) (blue / count);
+    }
+
+    // Top 3 bits of each channel
+    private static int bucket(int pixel) {
+        return ((pixel >> 21) & 0x7) << 6 | ((pixel >> 13) & 0x7) << 3 | ((pixel >> 5) & 0x7);
+    }
+}
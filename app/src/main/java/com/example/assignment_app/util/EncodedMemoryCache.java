@@ -0,0 +1,64 @@
+package com.example.assignment_app.util;
+
+import android.util.LruCache;
+
+// EncodedMemoryCache - Second memory tier holding the downloaded JPEG/WebP bytes.
+// Encoded thumbnails are ~10x smaller than their decoded bitmaps, so this tier keeps far more
+// images in memory; a bitmap-cache miss that hits here costs a decode but no file I/O.
+// Stored arrays are shared with callers and must not be modified.
+public class EncodedMemoryCache {
+
+    private final LruCache<String, byte[]> cache;
+    private final int maxEntryBytes; // Larger entries would flush too much of the tier
+
+    public EncodedMemoryCache(int maxBytes) {
+        cache = new LruCache<String, byte[]>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, byte[] data) {
+                return data.length;
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, byte[] oldValue, byte[] newValue) {
+                if (evicted) {
+                    Instrumentation.metrics().increment(ImageMetrics.Counter.ENCODED_EVICTION, 1);
+                }
+            }
+        };
+        maxEntryBytes = maxBytes / 8;
+    }
+
+    // Returns the encoded bytes for the key, or null. Records an ENCODED_HIT or ENCODED_MISS, which
+    // give this tier's hit rate, so use it only for lookups made on behalf of a bind.
+    public byte[] get(String key) {
+        byte[] data = cache.get(key);
+        Instrumentation.metrics().increment(data != null
+                ? ImageMetrics.Counter.ENCODED_HIT : ImageMetrics.Counter.ENCODED_MISS, 1);
+        return data;
+    }
+
+    // Like get(), without recording a hit or miss; for internal lookups such as warm-up
+    public byte[] peek(String key) {
+        return cache.get(key);
+    }
+
+    // Stores the encoded bytes for the key, unless they are too large for this tier
+    public void put(String key, byte[] data) {
+        if (data.length <= maxEntryBytes) {
+            cache.put(key, data);
+        }
+    }
+
+    public void remove(String key) {
+        cache.remove(key);
+    }
+
+    public void evictAll() {
+        cache.evictAll();
+    }
+
+    // Bytes currently held
+    public int size() {
+        return cache.size();
+    }
+}
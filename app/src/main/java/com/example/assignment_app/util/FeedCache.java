@@ -0,0 +1,47 @@
+package com.example.assignment_app.util;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// FeedCache - The last media-coverages JSON fetched, so the grid can render before (or without) the network.
+// Callers run read() and write() off the main thread.
+public class FeedCache {
+
+    private static final String FILE_NAME = "media_coverages.json";
+
+    private final File file;
+
+    public FeedCache(Context context) {
+        this(new File(context.getCacheDir(), FILE_NAME));
+    }
+
+    public FeedCache(File file) {
+        this.file = file;
+    }
+
+    // Returns the cached JSON, null if nothing was cached yet
+    public String read() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return new String(NetworkUtils.readInputStream(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    // Replaces the cached JSON; atomic, see AtomicFiles
+    public void write(String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        AtomicFiles.write(file, out -> out.write(bytes));
+    }
+
+    // Time of the last write in milliseconds since the epoch, 0 if nothing was cached
+    public long lastModified() {
+        return file.lastModified();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.assignment_app.util;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// HistogramImageMetrics - Lock-free ImageMetrics that aggregates stage timings into
+// log-linear histograms (4 buckets per power of two, so percentiles are within ~19%).
+public class HistogramImageMetrics implements ImageMetrics {
+
+    private final Histogram[] stages = new Histogram[Stage.values().length];
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+    private final AtomicLong[] gauges = new AtomicLong[Gauge.values().length];
+    private final AtomicLong[] gaugePeaks = new AtomicLong[Gauge.values().length];
+
+    public HistogramImageMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new Histogram();
+        }
+        for (int i = 0; i < gauges.length; i++) {
+            gauges[i] = new AtomicLong();
+            gaugePeaks[i] = new AtomicLong();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordStage(Stage stage, long durationNanos) {
+        stages[stage.ordinal()].record(durationNanos);
+    }
+
+    @Override
+    public void increment(Counter counter, long delta) {
+        counters.addAndGet(counter.ordinal(), delta);
+    }
+
+    @Override
+    public void adjust(Gauge gauge, int delta) {
+        long value = gauges[gauge.ordinal()].addAndGet(delta);
+        AtomicLong peak = gaugePeaks[gauge.ordinal()];
+        long current;
+        while (value > (current = peak.get()) && !peak.compareAndSet(current, value)) {
+            // Retry until the peak is at least value
+        }
+    }
+
+    public Histogram histogram(Stage stage) {
+        return stages[stage.ordinal()];
+    }
+
+    public long counter(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    public long gauge(Gauge gauge) {
+        return gauges[gauge.ordinal()].get();
+    }
+
+    public long peak(Gauge gauge) {
+        return gaugePeaks[gauge.ordinal()].get();
+    }
+
+    // Hit ratio of a hit/miss counter pair, NaN when nothing was looked up
+    public double hitRatio(Counter hits, Counter misses) {
+        long h = counter(hits);
+        long total = h + counter(misses);
+        return total == 0 ? Double.NaN : (double) h / total;
+    }
+
+    // Clears all recorded values (gauges keep their current level)
+    public void reset() {
+        for (Histogram histogram : stages) histogram.reset();
+        for (int i = 0; i < counters.length(); i++) counters.set(i, 0);
+        for (int i = 0; i < gauges.length; i++) gaugePeaks[i].set(gauges[i].get());
+    }
+
+    // Human readable summary, one line per stage/counter/gauge
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            Histogram h = histogram(stage);
+            if (h.count() == 0) continue;
+            sb.append(String.format(Locale.US, "%-12s n=%d p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms%n",
+                    stage, h.count(), h.percentile(50) / 1e6, h.percentile(95) / 1e6,
+                    h.percentile(99) / 1e6, h.max() / 1e6));
+        }
+        for (Counter counter : Counter.values()) {
+            sb.append(String.format(Locale.US, "%-22s %d%n", counter, counter(counter)));
+        }
+        for (Gauge gauge : Gauge.values()) {
+            sb.append(String.format(Locale.US, "%-12s now=%d peak=%d%n", gauge, gauge(gauge), peak(gauge)));
+        }
+        return sb.toString();
+    }
+
+    // Histogram - Fixed-size log-linear histogram of non-negative longs
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 2;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0) value = 0;
+            buckets.incrementAndGet(bucketIndex(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // Retry until max is at least value
+            }
+        }
+
+        public long count() {
+            return count.get();
+        }
+
+        public long max() {
+            return max.get();
+        }
+
+        public double mean() {
+            long n = count.get();
+            return n == 0 ? 0 : (double) sum.get() / n;
+        }
+
+        // Upper bound of the bucket holding the given percentile (0-100), capped at max()
+        public long percentile(double percentile) {
+            long n = count.get();
+            if (n == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) buckets.set(i, 0);
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+
+        // Values below SUB_BUCKETS map 1:1, above that each power of two gets SUB_BUCKETS buckets
+        static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int magnitude = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BUCKET_BITS
+            int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        static long bucketUpperBound(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long subBucket = index % SUB_BUCKETS;
+            long lower = (1L << magnitude) + (subBucket << (magnitude - SUB_BUCKET_BITS));
+            long width = 1L << (magnitude - SUB_BUCKET_BITS);
+            return lower + width - 1 < 0 ? Long.MAX_VALUE : lower + width - 1;
+        }
+    }
+}
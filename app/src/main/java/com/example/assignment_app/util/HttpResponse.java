@@ -0,0 +1,60 @@
+package com.example.assignment_app.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// HttpResponse - Status, headers and body stream of one HttpTransport request
+public final class HttpResponse implements Closeable {
+    private final int code; // HTTP status code
+    private final Map<String, String> headers; // Header names lower-cased
+    private final InputStream body; // Response body, never null
+    private final Closeable connection; // Released on close, may be null
+
+    public HttpResponse(int code, Map<String, String> headers, InputStream body, Closeable connection) {
+        this.code = code;
+        Map<String, String> normalized = new HashMap<>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey() != null) {
+                normalized.put(header.getKey().toLowerCase(Locale.US), header.getValue());
+            }
+        }
+        this.headers = Collections.unmodifiableMap(normalized);
+        this.body = body;
+        this.connection = connection;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public boolean isSuccessful() {
+        return code >= 200 && code < 300;
+    }
+
+    // Returns the header value (case-insensitive name), or null
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.US));
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public InputStream getBody() {
+        return body;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            body.close();
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.assignment_app.util;
+
+import java.io.IOException;
+
+// HttpStatusException - The server answered, but with a non-2xx status
+public class HttpStatusException extends IOException {
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode, String url) {
+        super("HTTP " + statusCode + " for " + url);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.assignment_app.util;
+
+import java.io.IOException;
+import java.util.Map;
+
+// HttpTransport - Performs HTTP GETs for the feed and the thumbnails.
+// Swappable so the app can be pointed at a mirror, a local stand-in or an in-process fake.
+public interface HttpTransport {
+
+    // Sends a GET with the given request headers; the caller must close the response
+    HttpResponse get(String url, Map<String, String> headers) throws IOException;
+}
@@ -7,17 +7,15 @@ import android.util.LruCache;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 public class ImageCache {
 
     // Memory cache for storing bitmaps
     private LruCache<String, Bitmap> memoryCache;
 
-    // Disk cache directory for storing images
-    private File cacheDir;
+    // Disk cache directory for storing images, created on first disk access
+    private final File cacheDir;
+    private volatile boolean cacheDirReady;
 
     public ImageCache(Context context) {
         int maxMemory = (int) (Runtime.getRuntime().maxMemory() / 1024); // Max available VM memory
@@ -28,45 +26,82 @@ public class ImageCache {
             protected int sizeOf(String key, Bitmap bitmap) {
                 return bitmap.getByteCount() / 1024; // Measure cache size in KB
             }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (evicted) {
+                    Instrumentation.metrics().increment(ImageMetrics.Counter.MEMORY_EVICTION, 1);
+                }
+            }
         };
 
-        cacheDir = new File(context.getCacheDir(), "images"); // Set up disk cache directory
-        if (!cacheDir.exists()) cacheDir.mkdirs(); // Create directory if it doesn't exist
+        // getCacheDir() only resolves a path here; the mkdirs waits for the first disk access,
+        // which happens off the main thread
+        cacheDir = new File(context.getCacheDir(), "images");
     }
 
     // Save bitmap to both memory and disk cache
     public void saveBitmapToCache(String url, Bitmap bitmap) {
         memoryCache.put(url, bitmap); // Save to memory cache
-        File file = new File(cacheDir, generateFileKeyFromUrl(url)); // Generate file key
+        File file = new File(cacheDir(), generateFileKeyFromUrl(url)); // Generate file key
 
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        ImageTrace.begin("ImageCache#diskWrite");
         try (FileOutputStream out = new FileOutputStream(file)) {
             bitmap.compress(Bitmap.CompressFormat.JPEG, 90, out); // Save as JPEG
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.DISK_WRITE, System.nanoTime() - start);
+            if (metrics.isEnabled()) {
+                metrics.increment(ImageMetrics.Counter.BYTES_WRITTEN_TO_DISK, file.length());
+            }
         }
     }
 
     // Retrieve bitmap from memory cache
     public Bitmap getBitmapFromMemory(String url) {
-        return memoryCache.get(url);
+        Bitmap bitmap = memoryCache.get(url);
+        Instrumentation.metrics().increment(bitmap != null
+                ? ImageMetrics.Counter.MEMORY_HIT : ImageMetrics.Counter.MEMORY_MISS, 1);
+        return bitmap;
     }
 
     // Retrieve bitmap from disk cache
     public Bitmap getBitmapFromDisk(String url) {
-        File file = new File(cacheDir, generateFileKeyFromUrl(url));
+        File file = new File(cacheDir(), generateFileKeyFromUrl(url));
 
-        if (file.exists()) {
-            Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
-            if (bitmap != null) memoryCache.put(url, bitmap); // Add to memory cache
-            return bitmap;
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        ImageTrace.begin("ImageCache#diskRead");
+        try {
+            if (file.exists()) {
+                Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+                if (bitmap != null) {
+                    memoryCache.put(url, bitmap); // Add to memory cache
+                    metrics.increment(ImageMetrics.Counter.DISK_HIT, 1);
+                    metrics.increment(ImageMetrics.Counter.BYTES_READ_FROM_DISK, file.length());
+                } else {
+                    metrics.increment(ImageMetrics.Counter.DISK_MISS, 1);
+                }
+                return bitmap;
+            }
+            metrics.increment(ImageMetrics.Counter.DISK_MISS, 1);
+            return null;
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.DISK_READ, System.nanoTime() - start);
         }
-        return null;
     }
 
     // Clear both memory and disk cache
     public void clearCache() {
         memoryCache.evictAll();
-        for (File file : cacheDir.listFiles()) file.delete(); // Delete cached files
+        File[] files = cacheDir.listFiles();
+        if (files == null) return; // Nothing written yet
+        for (File file : files) file.delete(); // Delete cached files
     }
 
     // Clear only memory cache
@@ -74,14 +109,17 @@ public class ImageCache {
         memoryCache.evictAll();
     }
 
-    // Generate a unique file key from URL using MD5
-    private String generateFileKeyFromUrl(String url) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            byte[] digest = md.digest(url.getBytes());
-            return new BigInteger(1, digest).toString(16);
-        } catch (NoSuchAlgorithmException e) {
-            return String.valueOf(url.hashCode()); // Fallback using hashCode
+    // Returns the disk cache directory, creating it if it doesn't exist
+    private File cacheDir() {
+        if (!cacheDirReady) {
+            if (!cacheDir.exists()) cacheDir.mkdirs();
+            cacheDirReady = true;
         }
+        return cacheDir;
+    }
+
+    // Generate a unique file key from URL
+    private String generateFileKeyFromUrl(String url) {
+        return CacheKeys.forUrl(url);
     }
 }
@@ -0,0 +1,56 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+import android.graphics.ImageDecoder;
+import android.graphics.PostProcessor;
+import android.os.Build;
+import android.util.Size;
+
+import androidx.annotation.RequiresApi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// ImageDecoderDecoder - Decodes with android.graphics.ImageDecoder in a single pass, scaling
+// straight to the covering size with setTargetSize instead of a power of two.
+@RequiresApi(Build.VERSION_CODES.P)
+public class ImageDecoderDecoder implements BitmapDecoder {
+
+    private final int allocator;
+    private final PostProcessor postProcessor;
+
+    // Software bitmaps, no post-processing; DominantColor and CenterCrop need to read the pixels
+    public ImageDecoderDecoder() {
+        this(ImageDecoder.ALLOCATOR_SOFTWARE, null);
+    }
+
+    // allocator is one of ImageDecoder.ALLOCATOR_*; postProcessor may be null
+    public ImageDecoderDecoder(int allocator, PostProcessor postProcessor) {
+        this.allocator = allocator;
+        this.postProcessor = postProcessor;
+    }
+
+    @Override
+    public Bitmap decode(byte[] data, int reqWidth, int reqHeight) {
+        ImageDecoder.Source source = ImageDecoder.createSource(ByteBuffer.wrap(data));
+        try {
+            return ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+                Size size = info.getSize();
+                // Smallest size covering the request; never upscale, CenterCrop does that if it must
+                double scale = Math.min(1.0, Math.max(
+                        (double) reqWidth / size.getWidth(), (double) reqHeight / size.getHeight()));
+                if (scale < 1.0) {
+                    decoder.setTargetSize(
+                            Math.max(reqWidth, (int) Math.ceil(size.getWidth() * scale)),
+                            Math.max(reqHeight, (int) Math.ceil(size.getHeight() * scale)));
+                }
+                decoder.setAllocator(allocator);
+                if (postProcessor != null) {
+                    decoder.setPostProcessor(postProcessor);
+                }
+            });
+        } catch (IOException e) {
+            return null; // Not a decodable image (ImageDecoder.DecodeException) or truncated data
+        }
+    }
+}
@@ -3,8 +3,7 @@ package com.example.assignment_app.util;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
+import android.graphics.drawable.ColorDrawable;
 import android.os.Environment;
 import android.util.Log;
 import android.util.LruCache;
@@ -13,40 +12,112 @@ import android.widget.ImageView;
 import com.example.assignment_app.R;
 import com.jakewharton.disklrucache.DiskLruCache;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.lang.ref.WeakReference;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 // ImageLoader - Handles image loading with memory and disk caching.
+// Lookup order: decoded bitmaps, encoded bytes in memory, disk, network. Requests are keyed by
+// CacheKeys.forUrl; the disk stores bytes by CacheKeys.forContent, and the memory tiers use the
+// content key once the disk index knows it, so URLs serving the same image share one bitmap.
 public class ImageLoader {
     // LRU memory cache for storing recently used images
     private final LruCache<String, Bitmap> memoryCache;
-    // Disk-based cache to store images persistently
-    private final DiskLruCache diskCache;
+    // Second memory tier with the encoded bytes of recently used images
+    private final EncodedMemoryCache encodedCache;
+    // Disk-based cache to store images persistently, opened in the background (null result if it failed)
+    private final Future<ContentStore> diskCacheFuture;
     // Application context
     private final Context context;
+    // Transport used to download images
+    private final HttpTransport transport;
     // Map to track ongoing download tasks
-    private final Map<String, Future<?>> taskMap = new ConcurrentHashMap<>();
-    // Executor service for handling image loading in background threads
-    private final ExecutorService executorService = Executors.newFixedThreadPool(5);
+    private final Map<String, ImageLoaderTask> taskMap = new ConcurrentHashMap<>();
+    // Executor for cache lookups and decoding of cached bytes
+    private final ExecutorService cacheExecutor = Executors.newFixedThreadPool(CACHE_THREADS);
+    // Executor for downloads; its threads wait on the controller, which sets the real parallelism
+    private final ExecutorService networkExecutor = Executors.newFixedThreadPool(ConcurrencyController.MAX_LIMIT);
+    // Adapts the number of parallel downloads to the measured latency and throughput
+    private final ConcurrencyController concurrency;
+    // Cached connectivity state; the network stage is paused while it reports offline
+    private final ConnectivityMonitor connectivity;
+    // Requests that missed every cache while offline, resubmitted when the network returns
+    private final Queue<ImageLoaderTask> parkedTasks = new ConcurrentLinkedQueue<>();
+    // Warm-up decodes still running, by key, so a request for the same image waits instead of duplicating it
+    private final Map<String, Future<?>> warmUps = new ConcurrentHashMap<>();
+    private final AtomicBoolean warmUpStarted = new AtomicBoolean();
+    // Dominant color of every image decoded so far, painted as its placeholder
+    private final PlaceholderStore placeholders;
+    // Crop to the grid cell applied after decoding, null to keep the decoder's output size
+    private volatile CenterCrop transform;
+    // Decode backend for sized requests, ImageDecoder where the platform has it
+    private final BitmapDecoder decoder = BitmapUtils.createDecoder();
 
     private static final int DISK_CACHE_SIZE = 50 * 1024 * 1024; // 50MB disk cache size
     private static final String DISK_CACHE_SUBDIR = "thumbnails"; // Subdirectory for disk cache
+    private static final int CACHE_THREADS = 2;
+    // How long a lookup waits for the disk cache to open before falling through to the network
+    private static final long DISK_CACHE_WAIT_MILLIS = 500;
+    // Warm-up and prefetch have no request waiting on the network, so they can wait for a slow journal replay
+    private static final long BACKGROUND_DISK_CACHE_WAIT_MILLIS = 5000;
+    private static final String HOT_SET_FILE = "thumbnail_hot_set"; // Keys to warm up, one per line
+    private static final int HOT_SET_SIZE = 30; // A few screens of the 3-column grid
+    private static final int WARM_UP_THREADS = 3;
+    // Partial downloads live in the disk cache under the image's key plus this suffix
+    private static final String PARTIAL_KEY_SUFFIX = "_part";
+    private static final int MIN_PARTIAL_BYTES = 4 * 1024; // Smaller cut-offs are cheaper to refetch than to store
+    private static final String PLACEHOLDER_FILE = "thumbnail_placeholders";
+    // URL key to content key index of the disk cache; outside its directory, which DiskLruCache owns
+    private static final String DISK_INDEX_FILE = "thumbnail_index";
+
+    // Process-wide instance used by the UI
+    private static ImageLoader instance;
+
+    // Returns the shared loader, creating it on first use
+    public static synchronized ImageLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageLoader(context);
+        }
+        return instance;
+    }
+
+    // Constructor - Initializes memory cache and starts opening the disk cache
+    public ImageLoader(Context context) {
+        this(context, NetworkUtils.getDefaultTransport());
+    }
 
-    // Constructor - Initializes memory and disk cache
-    public ImageLoader(Context context) throws IOException {
+    // Constructor - Downloads over the given transport instead of the default one
+    public ImageLoader(Context context, HttpTransport transport) {
         this.context = context.getApplicationContext();
+        this.transport = transport;
+        this.connectivity = new ConnectivityMonitor(this.context);
+        this.concurrency = new ConcurrencyController(connectivity.getTransportType());
+        connectivity.addListener(this::onConnectivityChanged);
 
         // Get max memory available to the app
         final int maxMemory = (int) (Runtime.getRuntime().maxMemory() / 1024);
@@ -59,113 +130,557 @@ public class ImageLoader {
             protected int sizeOf(String key, Bitmap bitmap) {
                 return bitmap.getByteCount() / 1024;
             }
+
+            @Override
+            protected void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+                if (evicted) {
+                    Instrumentation.metrics().increment(ImageMetrics.Counter.MEMORY_EVICTION, 1);
+                }
+            }
         };
 
-        // Initialize disk cache
-        File cacheDir = getDiskCacheDir(context, DISK_CACHE_SUBDIR);
-        diskCache = DiskLruCache.open(cacheDir, 1, 1, DISK_CACHE_SIZE);
+        // Encoded bytes get another 1/32nd, which holds far more thumbnails than the bitmap tier
+        encodedCache = new EncodedMemoryCache((int) (Runtime.getRuntime().maxMemory() / 32));
+
+        // Open the disk cache off the calling thread; replaying the journal grows with the cache.
+        // It is the first task on cacheExecutor, so no lookup can occupy both threads before it runs.
+        diskCacheFuture = cacheExecutor.submit(this::openDiskCache);
+
+        placeholders = new PlaceholderStore(new File(this.context.getCacheDir(), PLACEHOLDER_FILE));
+        cacheExecutor.execute(this::loadPlaceholders);
+    }
+
+    // Crops every decoded thumbnail to width x height from now on; call before warmUp()
+    public void setTargetSize(int width, int height) {
+        transform = new CenterCrop(width, height);
     }
 
     // Loads an image from cache or downloads it if not available
     public void loadImage(String imageUrl, ImageView imageView) {
+        loadImage(imageUrl, getHashKey(imageUrl), imageView);
+    }
+
+    // Loads an image whose cache key is already known (see ImageItem.Thumbnail.getCacheKey)
+    public void loadImage(String imageUrl, String hashKey, ImageView imageView) {
+        TargetBinding<ImageView> binding = getBinding(imageView);
+        CenterCrop transform = this.transform;
+        String memoryKey = getMemoryKey(getImageKey(hashKey), transform);
+
+        // Rebinding a view to the image it is already loading keeps the running task
+        Object current = binding.getRequest();
+        if (current instanceof ImageLoaderTask && ((ImageLoaderTask) current).memoryKey.equals(memoryKey)
+                && !((ImageLoaderTask) current).isDone()) {
+            return;
+        }
         cancelPotentialTask(imageView);
 
         // Try fetching from memory cache first
-        Bitmap bitmap = getBitmapFromMemCache(imageUrl);
+        Bitmap bitmap = getBitmapFromMemCache(memoryKey);
         if (bitmap != null) {
             imageView.setImageBitmap(bitmap);
             return;
         }
 
-        // Set a placeholder image while loading
-        imageView.setImageResource(R.drawable.placeholder);
+        // Set a placeholder while loading, in the image's own color once it has been decoded before
+        Integer placeholderColor = placeholders.get(hashKey);
+        if (placeholderColor != null) {
+            imageView.setImageDrawable(new ColorDrawable(placeholderColor));
+        } else {
+            imageView.setImageResource(R.drawable.placeholder);
+        }
 
         // Start background image loading task
-        ImageLoaderTask task = new ImageLoaderTask(imageUrl, imageView);
-        Future<?> futureTask = executorService.submit(task);
-        taskMap.put(imageUrl, futureTask);
+        ImageLoaderTask task = new ImageLoaderTask(imageUrl, hashKey, memoryKey, transform, binding);
+        task.generation = binding.bind(task);
+        taskMap.put(imageUrl, task);
+        task.start();
     }
 
     // Cancels all ongoing image loading tasks
     public void cancelAll() {
-        for (Future<?> future : taskMap.values()) {
-            future.cancel(true);
+        for (ImageLoaderTask task : taskMap.values()) {
+            task.cancel();
         }
         taskMap.clear();
     }
 
-    // Cancels any previous loading task associated with an ImageView
-    private void cancelPotentialTask(ImageView imageView) {
-        Future<?> task = (Future<?>) imageView.getTag(R.id.image_loader_task);
-        if (task != null) {
-            task.cancel(true);
+    // Downloads the encoded bytes of images missing from the disk cache, in order, on the calling thread.
+    // Stops once byteBudget bytes were downloaded or isStopped returns true; returns the bytes downloaded.
+    public long prefetchToDisk(List<String> imageUrls, long byteBudget, BooleanSupplier isStopped) {
+        ContentStore diskCache = getDiskCache(BACKGROUND_DISK_CACHE_WAIT_MILLIS);
+        if (diskCache == null) {
+            return 0;
+        }
+        long downloaded = 0;
+        int fetched = 0;
+        for (String imageUrl : imageUrls) {
+            if (downloaded >= byteBudget || isStopped.getAsBoolean()) {
+                break;
+            }
+            String hashKey = getHashKey(imageUrl);
+            if (isOnDisk(diskCache, hashKey)) {
+                continue;
+            }
+            try {
+                byte[] data = NetworkUtils.downloadImage(transport, imageUrl, getPartialDownload(hashKey));
+                addBytesToDiskCache(hashKey, CacheKeys.forContent(data), data);
+                removePartialDownload(hashKey);
+                downloaded += data.length;
+                fetched++;
+            } catch (IncompleteDownloadException e) {
+                savePartialDownload(hashKey, e.getPartial()); // A later run or a bind picks it up
+                if (e.getPartial() != null) {
+                    downloaded += e.getPartial().length();
+                }
+                Log.w("ImageLoader", "Prefetch cut off", e);
+            } catch (IOException e) {
+                Log.w("ImageLoader", "Prefetch failed for " + imageUrl, e);
+            }
+        }
+        Log.i("ImageLoader", "Prefetched " + fetched + " images, " + downloaded + " bytes");
+        saveDiskIndex(diskCache);
+        return downloaded;
+    }
+
+    // Saves the disk cache's URL index if it changed since the last save
+    public void saveDiskIndex() {
+        cacheExecutor.execute(() -> saveDiskIndex(getDiskCache(BACKGROUND_DISK_CACHE_WAIT_MILLIS)));
+    }
+
+    // Saves the placeholder colors computed since the last save
+    public void savePlaceholders() {
+        cacheExecutor.execute(() -> {
+            try {
+                placeholders.save();
+            } catch (IOException e) {
+                Log.e("ImageLoader", "Cannot save placeholders", e);
+            }
+        });
+    }
+
+    // Saves the keys of the most recently used thumbnails for warmUp() on the next launch
+    public void saveHotSet() {
+        // snapshot() is ordered from least to most recently used; walk it backwards so the most
+        // recent decode first. Memory keys may carry a transform suffix, the hot set keeps the image key.
+        List<String> keys = new ArrayList<>(memoryCache.snapshot().keySet());
+        Set<String> hotSet = new LinkedHashSet<>();
+        for (int i = keys.size() - 1; i >= 0 && hotSet.size() < HOT_SET_SIZE; i--) {
+            String key = keys.get(i);
+            int suffix = key.indexOf('_');
+            hotSet.add(suffix < 0 ? key : key.substring(0, suffix));
+        }
+        if (hotSet.isEmpty()) {
+            return;
+        }
+        List<String> ordered = new ArrayList<>(hotSet);
+        cacheExecutor.execute(() -> writeHotSet(ordered));
+    }
+
+    // Decodes the thumbnails saved by saveHotSet() from disk into the memory cache, in parallel.
+    // Runs once per loader; returns immediately.
+    public void warmUp() {
+        if (!warmUpStarted.compareAndSet(false, true)) {
+            return;
+        }
+        CenterCrop transform = this.transform;
+        ExecutorService pool = Executors.newFixedThreadPool(WARM_UP_THREADS);
+        pool.execute(() -> {
+            long start = System.nanoTime();
+            List<String> keys = readHotSet();
+            AtomicInteger remaining = new AtomicInteger(keys.size());
+            AtomicInteger loaded = new AtomicInteger();
+            for (String key : keys) {
+                if (memoryCache.get(getMemoryKey(key, transform)) != null) {
+                    remaining.decrementAndGet();
+                    continue;
+                }
+                // Registered before it runs, so its own removal can't come first
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    try {
+                        if (warmUpEntry(key, transform)) {
+                            loaded.incrementAndGet();
+                        }
+                    } finally {
+                        warmUps.remove(key);
+                        if (remaining.decrementAndGet() == 0) {
+                            Log.i("ImageLoader", "Warmed up " + loaded.get() + "/" + keys.size()
+                                    + " thumbnails in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                        }
+                    }
+                }, null);
+                warmUps.put(key, task);
+                pool.execute(task);
+            }
+            pool.shutdown(); // Queued decodes still run
+        });
+    }
+
+    // Cancels all tasks and releases the threads and the network callback; the loader is unusable afterwards
+    public void shutdown() {
+        cancelAll();
+        connectivity.unregister();
+        cacheExecutor.shutdownNow();
+        networkExecutor.shutdownNow();
+    }
+
+    // Cancels any previous loading task associated with an ImageView; its result will not be delivered
+    public void cancelPotentialTask(ImageView imageView) {
+        Object tag = imageView.getTag(R.id.image_loader_binding);
+        if (tag instanceof TargetBinding) {
+            TargetBinding<?> binding = (TargetBinding<?>) tag;
+            Object task = binding.getRequest();
+            if (task instanceof ImageLoaderTask) {
+                ((ImageLoaderTask) task).cancel();
+            }
+            binding.unbind();
         }
     }
 
+    // Returns the view's binding, attaching one on first use; views keep theirs across recycling
+    @SuppressWarnings("unchecked")
+    private TargetBinding<ImageView> getBinding(ImageView imageView) {
+        Object tag = imageView.getTag(R.id.image_loader_binding);
+        if (tag instanceof TargetBinding) {
+            return (TargetBinding<ImageView>) tag;
+        }
+        TargetBinding<ImageView> binding = new TargetBinding<>(imageView);
+        imageView.setTag(R.id.image_loader_binding, binding);
+        return binding;
+    }
+
+    // Returns the current limit on parallel downloads
+    public int getConcurrencyLimit() {
+        return concurrency.getLimit();
+    }
+
     // Retrieves an image from memory cache
     private Bitmap getBitmapFromMemCache(String key) {
-        return memoryCache.get(key);
+        Bitmap bitmap = memoryCache.get(key);
+        Instrumentation.metrics().increment(bitmap != null
+                ? ImageMetrics.Counter.MEMORY_HIT : ImageMetrics.Counter.MEMORY_MISS, 1);
+        return bitmap;
     }
 
-    // Adds an image to memory cache
+    // Adds an image to memory cache, keeping the bitmap already there so views share one instance.
+    // The bitmap tier's hit rate is the MEMORY_HIT/MEMORY_MISS events recorded on bind, not
+    // LruCache's own counters, which this and the other internal lookups inflate.
     private void addBitmapToMemoryCache(String key, Bitmap bitmap) {
-        if (getBitmapFromMemCache(key) == null) {
+        if (memoryCache.get(key) == null) {
             memoryCache.put(key, bitmap);
         }
     }
 
-    // Retrieves an image from disk cache
-    private Bitmap getBitmapFromDiskCache(String key) {
+    // Opens the disk cache and its index and reports how long it took
+    private ContentStore openDiskCache() {
+        long start = System.nanoTime();
+        ImageTrace.begin("ImageLoader#diskOpen");
         try {
-            DiskLruCache.Snapshot snapshot = diskCache.get(getHashKey(key));
-            if (snapshot != null) {
-                InputStream is = snapshot.getInputStream(0);
-                Bitmap bitmap = BitmapFactory.decodeStream(is);
-                snapshot.close();
-                return bitmap;
+            File cacheDir = getDiskCacheDir(context, DISK_CACHE_SUBDIR);
+            DiskLruCache cache = DiskLruCache.open(cacheDir, 1, 1, DISK_CACHE_SIZE);
+            ContentStore store = new ContentStore(cache, new File(context.getCacheDir(), DISK_INDEX_FILE));
+            try {
+                store.load();
+            } catch (IOException e) {
+                Log.e("ImageLoader", "Cannot load disk index, older entries are refetched", e);
             }
+            Log.i("ImageLoader", "Disk cache opened in " + (System.nanoTime() - start) / 1_000_000
+                    + " ms (" + cache.size() + " bytes, " + store.size() + " URLs)");
+            return store;
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Cannot open disk cache, continuing without it", e);
+            return null;
+        } finally {
+            ImageTrace.end();
+            Instrumentation.metrics().recordStage(ImageMetrics.Stage.DISK_OPEN, System.nanoTime() - start);
+        }
+    }
+
+    // Returns the disk cache, waiting up to timeoutMillis for it to open; null if unavailable
+    private ContentStore getDiskCache(long timeoutMillis) {
+        try {
+            return diskCacheFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null; // Still replaying the journal; this request skips the disk tier
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    // Retrieves the encoded bytes of an image from disk cache, null if it isn't available.
+    // key is a URL key, or a content key from the hot set.
+    private byte[] getBytesFromDiskCache(ContentStore diskCache, String key) {
+        if (diskCache == null) {
+            return null;
+        }
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        ImageTrace.begin("ImageLoader#diskRead");
+        try {
+            byte[] data = CacheKeys.isContentKey(key) ? diskCache.getContent(key) : diskCache.get(key);
+            if (data != null) {
+                metrics.increment(ImageMetrics.Counter.DISK_HIT, 1);
+                metrics.increment(ImageMetrics.Counter.BYTES_READ_FROM_DISK, data.length);
+                return data;
+            }
+            metrics.increment(ImageMetrics.Counter.DISK_MISS, 1);
         } catch (IOException e) {
             Log.e("ImageLoader", "Disk cache read error", e);
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.DISK_READ, System.nanoTime() - start);
         }
         return null;
     }
 
-    // Adds an image to disk cache
-    private void addBitmapToDiskCache(String key, Bitmap bitmap) {
+    // Adds the encoded bytes of an image to disk cache, as downloaded (no re-compression); bytes another
+    // URL already stored are linked instead. While the cache is still opening, the write is queued on
+    // cacheExecutor behind openDiskCache, so a cold start's first downloads are persisted too.
+    // False if the write was queued, the disk cache is unavailable or the write failed.
+    private boolean addBytesToDiskCache(String hashKey, String contentKey, byte[] data) {
+        if (!diskCacheFuture.isDone()) {
+            cacheExecutor.execute(() -> writeBytesToDiskCache(
+                    getDiskCache(BACKGROUND_DISK_CACHE_WAIT_MILLIS), hashKey, contentKey, data));
+            return false;
+        }
+        return writeBytesToDiskCache(getDiskCache(0), hashKey, contentKey, data);
+    }
+
+    private boolean writeBytesToDiskCache(ContentStore diskCache, String hashKey, String contentKey, byte[] data) {
+        if (diskCache == null) {
+            Instrumentation.metrics().increment(ImageMetrics.Counter.BYTES_NOT_WRITTEN_TO_DISK, data.length);
+            return false;
+        }
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        ImageTrace.begin("ImageLoader#diskWrite");
+        try {
+            diskCache.put(hashKey, contentKey, data);
+            return true;
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Disk cache write error", e);
+            return false;
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.DISK_WRITE, System.nanoTime() - start);
+        }
+    }
+
+    private void saveDiskIndex(ContentStore diskCache) {
+        if (diskCache == null) {
+            return;
+        }
+        try {
+            diskCache.save();
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Cannot save disk index", e);
+        }
+    }
+
+    private void loadPlaceholders() {
+        try {
+            placeholders.load();
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Cannot load placeholders", e);
+        }
+    }
+
+    // Whether the disk cache holds a complete entry for the key
+    private boolean isOnDisk(ContentStore diskCache, String hashKey) {
+        try {
+            return diskCache.contains(hashKey);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Reads the partial download saved for an image, null if there is none
+    private PartialDownload getPartialDownload(String hashKey) {
+        ContentStore diskCache = getDiskCache(DISK_CACHE_WAIT_MILLIS);
+        if (diskCache == null) {
+            return null;
+        }
+        String key = hashKey + PARTIAL_KEY_SUFFIX;
+        try {
+            DiskLruCache.Snapshot snapshot = diskCache.getCache().get(key);
+            if (snapshot == null) {
+                return null;
+            }
+            try {
+                return PartialDownload.readFrom(snapshot.getInputStream(0), snapshot.getLength(0));
+            } finally {
+                snapshot.close();
+            }
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Partial download read error", e);
+            try {
+                diskCache.getCache().remove(key); // Corrupt; the next attempt starts from byte zero
+            } catch (IOException removeError) {
+                Log.e("ImageLoader", "Cannot remove partial download", removeError);
+            }
+            return null;
+        }
+    }
+
+    // Saves a cut-off download next to the image's entry, so the next attempt asks only for the rest
+    private void savePartialDownload(String hashKey, PartialDownload partial) {
+        if (partial == null || !partial.isResumable() || partial.length() < MIN_PARTIAL_BYTES) {
+            return;
+        }
+        ContentStore diskCache = getDiskCache(DISK_CACHE_WAIT_MILLIS);
+        if (diskCache == null) {
+            return;
+        }
         try {
-            String hashKey = getHashKey(key);
-            DiskLruCache.Editor editor = diskCache.edit(hashKey);
+            DiskLruCache.Editor editor = diskCache.getCache().edit(hashKey + PARTIAL_KEY_SUFFIX);
             if (editor != null) {
                 OutputStream outputStream = editor.newOutputStream(0);
-                if (bitmap.compress(Bitmap.CompressFormat.JPEG, 90, outputStream)) {
+                try {
+                    partial.writeTo(outputStream);
                     outputStream.close();
-                    editor.commit(); // Save changes if compression was successful
-                    diskCache.flush();
-                } else {
+                    editor.commit();
+                } catch (IOException e) {
                     editor.abort();
+                    throw e;
                 }
             }
         } catch (IOException e) {
-            Log.e("ImageLoader", "Disk cache write error", e);
+            Log.e("ImageLoader", "Partial download write error", e);
         }
     }
 
-    // Generates a unique hash key for each image URL
-    private String getHashKey(String key) {
+    // Drops the partial download of an image once it has been completed
+    private void removePartialDownload(String hashKey) {
+        ContentStore diskCache = getDiskCache(DISK_CACHE_WAIT_MILLIS);
+        if (diskCache == null) {
+            return;
+        }
+        try {
+            diskCache.getCache().remove(hashKey + PARTIAL_KEY_SUFFIX);
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Partial download remove error", e);
+        }
+    }
+
+    // Decodes encoded image bytes into a bitmap and applies transform if given,
+    // null if the data isn't a valid image. The first decode of an image records its placeholder
+    // color under hashKey, unless hashKey is null.
+    private Bitmap decodeBitmap(String hashKey, byte[] data, CenterCrop transform) {
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        Bitmap decoded;
+        ImageTrace.begin("ImageLoader#decode");
+        try {
+            if (transform == null) {
+                BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inSampleSize = 2; // Downsampling factor
+                decoded = BitmapFactory.decodeByteArray(data, 0, data.length, options);
+            } else {
+                // Decode as small as possible while still covering the cell, the crop does the rest
+                decoded = decoder.decode(data, transform.getWidth(), transform.getHeight());
+            }
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.DECODE, System.nanoTime() - start);
+        }
+        if (decoded != null && hashKey != null && !placeholders.contains(hashKey)) {
+            int color = DominantColor.of(decoded);
+            if (color != 0) {
+                placeholders.put(hashKey, color);
+            }
+        }
+        if (decoded == null || transform == null) {
+            return decoded;
+        }
+
+        start = System.nanoTime();
+        ImageTrace.begin("ImageLoader#transform");
         try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            digest.update(key.getBytes());
-            byte[] bytes = digest.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) {
-                sb.append(String.format("%02x", b));
+            Bitmap result = transform.apply(decoded);
+            if (result != decoded) {
+                decoded.recycle(); // Intermediate, never shared
             }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            return String.valueOf(key.hashCode());
+            return result;
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.TRANSFORM, System.nanoTime() - start);
         }
     }
 
+    // Memory cache key of an image under a transform; the encoded tiers hold the untransformed bytes
+    private static String getMemoryKey(String imageKey, CenterCrop transform) {
+        return transform == null ? imageKey : imageKey + '_' + transform.key();
+    }
+
+    // Key of an image in the memory tiers: its content key once the disk index has it, so every URL
+    // serving the same bytes finds the same bitmap, else the URL key. No I/O; safe on the main thread.
+    private String getImageKey(String hashKey) {
+        ContentStore diskCache = diskCacheFuture.isDone() ? getDiskCache(0) : null;
+        String contentKey = diskCache != null ? diskCache.getContentKey(hashKey) : null;
+        return contentKey != null ? contentKey : hashKey;
+    }
+
+    // Loads one hot-set entry (an image key) into the memory cache, false if it is no longer on disk
+    private boolean warmUpEntry(String imageKey, CenterCrop transform) {
+        byte[] data = encodedCache.peek(imageKey); // Not a bind, so not part of the tier's hit rate
+        if (data == null) {
+            data = getBytesFromDiskCache(getDiskCache(BACKGROUND_DISK_CACHE_WAIT_MILLIS), imageKey);
+        }
+        // Content keys have no placeholder entry of their own; the URLs that share them already do
+        Bitmap bitmap = data != null
+                ? decodeBitmap(CacheKeys.isContentKey(imageKey) ? null : imageKey, data, transform) : null;
+        if (bitmap == null) {
+            return false;
+        }
+        addBitmapToMemoryCache(getMemoryKey(imageKey, transform), bitmap);
+        return true;
+    }
+
+    // Writes the hot set atomically (see AtomicFiles), so a crash mid-write leaves the previous one
+    private void writeHotSet(List<String> keys) {
+        try {
+            AtomicFiles.write(new File(context.getCacheDir(), HOT_SET_FILE), out -> {
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+                for (String key : keys) {
+                    writer.write(key);
+                    writer.write('\n');
+                }
+                writer.flush();
+            });
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Cannot save hot set", e);
+        }
+    }
+
+    // Reads the keys saved by writeHotSet, skipping anything that isn't a cache key
+    private List<String> readHotSet() {
+        List<String> keys = new ArrayList<>();
+        File file = new File(context.getCacheDir(), HOT_SET_FILE);
+        if (!file.exists()) {
+            return keys;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null && keys.size() < HOT_SET_SIZE) {
+                // URL keys, or content keys for images the disk index knew when the set was saved
+                if (line.length() == CacheKeys.KEY_LENGTH || CacheKeys.isContentKey(line)) {
+                    keys.add(line);
+                }
+            }
+        } catch (IOException e) {
+            Log.e("ImageLoader", "Cannot read hot set", e);
+        }
+        return keys;
+    }
+
+    // Generates a unique hash key for each image URL
+    private String getHashKey(String key) {
+        return CacheKeys.forUrl(key);
+    }
+
     // Gets the directory path for disk cache
     private File getDiskCacheDir(Context context, String uniqueName) {
         String cachePath;
@@ -180,78 +695,272 @@ public class ImageLoader {
         return new File(cachePath + File.separator + uniqueName);
     }
 
-    // Checks if the device has an active internet connection
-    private boolean isNetworkAvailable() {
-        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        NetworkInfo activeNetwork = cm.getActiveNetworkInfo();
-        return activeNetwork != null && activeNetwork.isConnected();
+    // Restarts the controller on a new transport and resumes parked requests once back online
+    private void onConnectivityChanged(boolean connected, int transportType) {
+        if (connected) {
+            concurrency.reset(transportType);
+            resumeParkedTasks();
+        }
     }
 
-    // Background task to load images
-    private class ImageLoaderTask implements Runnable {
-        private final String imageUrl;
-        private final WeakReference<ImageView> imageViewReference;
+    // Moves every parked request back onto the network stage
+    private void resumeParkedTasks() {
+        ImageLoaderTask task;
+        while ((task = parkedTasks.poll()) != null) {
+            Instrumentation.metrics().adjust(ImageMetrics.Gauge.PARKED, -1);
+            task.resume();
+        }
+    }
 
-        // Constructor - Initializes image URL and ImageView reference
-        public ImageLoaderTask(String imageUrl, ImageView imageView) {
+    // One request for one ImageView, stored in the view's tag while it runs.
+    // Runs as a cache stage on cacheExecutor and, on a miss, a network stage on networkExecutor
+    // gated by the concurrency controller, so cache hits never wait behind throttled downloads.
+    private class ImageLoaderTask {
+        private final String imageUrl;
+        private final String hashKey; // Cache key of the encoded tiers, computed once per request
+        private final CenterCrop transform; // Snapshot of the loader's transform at request time
+        final String memoryKey; // Key of the transformed bitmap in the memory cache, as resolved on bind
+        private final TargetBinding<ImageView> binding; // Holds the view weakly
+        long generation; // Binding generation this request was made under, set before start()
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile long queuedAt;
+        private volatile Future<?> stage; // Future of the stage currently queued or running
+        private volatile boolean finished;
+
+        // Constructor - Initializes image URL and the binding of the target view
+        public ImageLoaderTask(String imageUrl, String hashKey, String memoryKey, CenterCrop transform,
+                               TargetBinding<ImageView> binding) {
             this.imageUrl = imageUrl;
-            this.imageViewReference = new WeakReference<>(imageView);
+            this.hashKey = hashKey;
+            this.transform = transform;
+            this.memoryKey = memoryKey;
+            this.binding = binding;
+        }
+
+        void start() {
+            submit(cacheExecutor, this::loadFromCache);
+        }
+
+        boolean isDone() {
+            return finished || cancelled.get();
         }
 
-        @Override
-        public void run() {
-            if (!isNetworkAvailable()) {
-                Log.e("ImageLoader", "No internet connection");
+        // Cancels the request, whichever stage it is in
+        void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
                 return;
             }
+            ImageMetrics metrics = Instrumentation.metrics();
+            metrics.increment(ImageMetrics.Counter.REQUEST_CANCELLED, 1);
+            if (queued.compareAndSet(true, false)) {
+                metrics.adjust(ImageMetrics.Gauge.QUEUED, -1);
+            }
+            if (parkedTasks.remove(this)) {
+                metrics.adjust(ImageMetrics.Gauge.PARKED, -1);
+            }
+            Future<?> current = stage;
+            if (current != null) {
+                current.cancel(true);
+            }
+            taskMap.remove(imageUrl, this);
+        }
 
-            // Try fetching from disk cache first
-            Bitmap bitmap = getBitmapFromDiskCache(imageUrl);
-            if (bitmap == null) {
-                // Download if not available in cache
-                bitmap = downloadImage(imageUrl);
-                if (bitmap != null) {
-                    addBitmapToMemoryCache(imageUrl, bitmap);
-                    addBitmapToDiskCache(imageUrl, bitmap);
+        // Waits for connectivity with the placeholder still showing
+        private void park() {
+            parkedTasks.add(this);
+            Instrumentation.metrics().adjust(ImageMetrics.Gauge.PARKED, 1);
+            // The network may have come back between the caller's check and the add
+            if (connectivity.isConnected()) {
+                resumeParkedTasks();
+            }
+        }
+
+        void resume() {
+            if (!cancelled.get()) {
+                submit(networkExecutor, this::loadFromNetwork);
+            }
+        }
+
+        // Queues the next stage of this request
+        private void submit(ExecutorService executor, Runnable body) {
+            queuedAt = System.nanoTime();
+            queued.set(true);
+            Instrumentation.metrics().adjust(ImageMetrics.Gauge.QUEUED, 1);
+            stage = executor.submit(() -> {
+                ImageMetrics metrics = Instrumentation.metrics();
+                if (!queued.compareAndSet(true, false)) {
+                    return; // Cancelled before it started
                 }
-            } else {
-                addBitmapToMemoryCache(imageUrl, bitmap);
+                metrics.adjust(ImageMetrics.Gauge.QUEUED, -1);
+                metrics.recordStage(ImageMetrics.Stage.QUEUE_WAIT, System.nanoTime() - queuedAt);
+                if (!cancelled.get()) {
+                    body.run();
+                }
+            });
+        }
+
+        // Encoded bytes in memory, then disk
+        private void loadFromCache() {
+            // The view may have been bound before the disk index was open
+            String imageKey = getImageKey(hashKey);
+
+            // A warm-up decode of this image may have been in flight when the view was bound
+            Future<?> warmUp = warmUps.get(imageKey);
+            if (warmUp != null) {
+                try {
+                    warmUp.get();
+                } catch (InterruptedException e) {
+                    return; // Cancelled
+                } catch (ExecutionException | CancellationException ignored) {
+                }
+            }
+            // Warmed up, or decoded for another URL serving the same image
+            Bitmap shared = memoryCache.get(getMemoryKey(imageKey, transform));
+            if (shared != null) {
+                deliver(shared);
+                return;
             }
 
-            final Bitmap finalBitmap = bitmap;
-            ImageView imageView = imageViewReference.get();
-            if (imageView != null) {
-                imageView.post(() -> {
-                    if (finalBitmap != null) {
-                        imageView.setImageBitmap(finalBitmap);
+            Bitmap bitmap = null;
+            ImageTrace.begin("ImageLoader#cacheLookup");
+            try {
+                byte[] data = encodedCache.get(imageKey);
+                if (data == null) {
+                    data = getBytesFromDiskCache(getDiskCache(DISK_CACHE_WAIT_MILLIS), hashKey);
+                    if (data != null) {
+                        // The read may have indexed an older URL-keyed entry under its content key
+                        imageKey = getImageKey(hashKey);
+                        bitmap = memoryCache.get(getMemoryKey(imageKey, transform));
+                        encodedCache.put(imageKey, data);
+                    }
+                }
+                if (data != null && bitmap == null) {
+                    bitmap = decodeBitmap(hashKey, data, transform);
+                    if (bitmap != null) {
+                        addBitmapToMemoryCache(getMemoryKey(imageKey, transform), bitmap);
                     }
-                });
+                }
+            } finally {
+                ImageTrace.end();
             }
 
-            taskMap.remove(imageUrl);
+            if (bitmap != null) {
+                deliver(bitmap);
+            } else if (!connectivity.isConnected()) {
+                park();
+            } else {
+                submit(networkExecutor, this::loadFromNetwork);
+            }
         }
 
-        // Downloads an image from a given URL
-        private Bitmap downloadImage(String urlString) {
+        // Downloads once the controller grants a slot, then fills every tier
+        private void loadFromNetwork() {
+            ImageMetrics metrics = Instrumentation.metrics();
+            try {
+                concurrency.acquire();
+            } catch (InterruptedException e) {
+                return; // Cancelled while waiting for a slot
+            }
+            if (!connectivity.isConnected()) {
+                concurrency.release();
+                park(); // Went offline while waiting for a slot
+                return;
+            }
+            byte[] data;
+            metrics.adjust(ImageMetrics.Gauge.IN_FLIGHT, 1);
+            ImageTrace.begin("ImageLoader#download");
             try {
-                URL url = new URL(urlString);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setDoInput(true);
-                connection.connect();
+                data = cancelled.get() ? null : downloadImage(imageUrl);
+            } finally {
+                ImageTrace.end();
+                metrics.adjust(ImageMetrics.Gauge.IN_FLIGHT, -1);
+                concurrency.release();
+            }
+            if (cancelled.get()) {
+                return;
+            }
+            if (data == null && !connectivity.isConnected()) {
+                park(); // The download failed because the network went away; retry when it returns
+                return;
+            }
 
-                InputStream input = connection.getInputStream();
-                BitmapFactory.Options options = new BitmapFactory.Options();
-                options.inSampleSize = 2; // Downsampling factor
+            Bitmap bitmap = null;
+            if (data != null) {
+                // Another URL may have served these exact bytes; share its bitmap instead of decoding
+                String contentKey = CacheKeys.forContent(data);
+                bitmap = memoryCache.get(getMemoryKey(contentKey, transform));
+                if (bitmap == null) {
+                    bitmap = decodeBitmap(hashKey, data, transform);
+                }
+                if (bitmap != null) {
+                    // The memory tiers switch to the content key only once the disk index maps this URL to it
+                    String imageKey = addBytesToDiskCache(hashKey, contentKey, data) ? contentKey : hashKey;
+                    encodedCache.put(imageKey, data);
+                    addBitmapToMemoryCache(getMemoryKey(imageKey, transform), bitmap);
+                } else {
+                    metrics.increment(ImageMetrics.Counter.REQUEST_FAILED, 1);
+                }
+            }
+            deliver(bitmap);
+        }
 
-                Bitmap bitmap = BitmapFactory.decodeStream(input, null, options);
-                input.close();
-                connection.disconnect();
+        // Posts the result to the view, or the error placeholder when bitmap is null
+        private void deliver(Bitmap bitmap) {
+            finished = true;
+            taskMap.remove(imageUrl, this);
+            // Drop stale results here already, saving the post
+            ImageView target = binding.getTargetIfCurrent(generation);
+            if (target == null || cancelled.get()) {
+                return;
+            }
+            target.post(() -> {
+                // Binds happen on the main thread too, so nothing can rebind between this check and the set
+                ImageView imageView = binding.getTargetIfCurrent(generation);
+                if (imageView == null) {
+                    return;
+                }
+                if (bitmap != null) {
+                    imageView.setImageBitmap(bitmap);
+                } else {
+                    imageView.setImageResource(R.drawable.error_placeholder);
+                }
+            });
+        }
 
-                return bitmap;
-            } catch (Exception e) {
+        // Downloads the encoded bytes of an image and feeds the outcome to the controller
+        // Resumes from a partial body an earlier attempt left on disk, and leaves one behind when cut off
+        private byte[] downloadImage(String urlString) {
+            PartialDownload partial = getPartialDownload(hashKey);
+            long start = System.nanoTime();
+            try {
+                byte[] data = NetworkUtils.downloadImage(transport, urlString, partial);
+                concurrency.onComplete(System.nanoTime() - start, data.length, true);
+                if (partial != null) {
+                    removePartialDownload(hashKey);
+                }
+                return data;
+            } catch (IncompleteDownloadException e) {
+                savePartialDownload(hashKey, e.getPartial());
+                return onDownloadFailed(e, start);
+            } catch (HttpStatusException e) {
+                // The link delivered a response, so a bad status says nothing about congestion
+                Instrumentation.metrics().increment(ImageMetrics.Counter.REQUEST_FAILED, 1);
                 Log.e("ImageLoader", "Error downloading image", e);
                 return null;
+            } catch (Exception e) {
+                return onDownloadFailed(e, start);
+            }
+        }
+
+        private byte[] onDownloadFailed(Exception e, long start) {
+            if (cancelled.get() || !connectivity.isConnected()) {
+                return null; // Not a failure of the request; the caller parks it if offline
             }
+            concurrency.onComplete(System.nanoTime() - start, 0, false);
+            Instrumentation.metrics().increment(ImageMetrics.Counter.REQUEST_FAILED, 1);
+            Log.e("ImageLoader", "Error downloading image", e);
+            return null;
         }
     }
 }
@@ -0,0 +1,77 @@
+package com.example.assignment_app.util;
+
+// ImageMetrics - Instrumentation surface the image pipeline reports to.
+// Implementations must be thread-safe; calls come from the UI thread and every loader thread.
+public interface ImageMetrics {
+
+    // Timed pipeline stages
+    enum Stage {
+        QUEUE_WAIT, // Submitted to the executor until a worker picks it up
+        CONNECT, // Opening the HTTP connection
+        TTFB, // Request sent until response headers arrive
+        DOWNLOAD, // Reading the response body
+        DECODE, // Bytes to Bitmap
+        TRANSFORM, // Cropping a decoded Bitmap to the cell size
+        DISK_READ, // Reading an entry from the disk cache
+        DISK_WRITE, // Writing an entry to the disk cache
+        DISK_OPEN, // Opening the disk cache and replaying its journal
+        FEED_FETCH, // Fetching the media-coverages JSON
+        FEED_PARSE // Parsing the media-coverages JSON
+    }
+
+    // Monotonic counters
+    enum Counter {
+        MEMORY_HIT,
+        MEMORY_MISS,
+        MEMORY_EVICTION,
+        ENCODED_HIT, // Encoded-bytes memory tier, consulted after a bitmap cache miss
+        ENCODED_MISS,
+        ENCODED_EVICTION,
+        DISK_HIT,
+        DISK_MISS,
+        BYTES_DOWNLOADED,
+        BYTES_RESUMED, // Bytes of saved partial downloads that a ranged retry didn't fetch again
+        BYTES_DEDUPLICATED, // Downloaded bytes already on disk under another URL, linked instead of written
+        BYTES_READ_FROM_DISK,
+        BYTES_WRITTEN_TO_DISK,
+        BYTES_NOT_WRITTEN_TO_DISK, // Downloaded bytes dropped because the disk cache never opened
+        REQUEST_FAILED,
+        REQUEST_CANCELLED
+    }
+
+    // Up/down counts of work in the loader
+    enum Gauge {
+        QUEUED,
+        IN_FLIGHT,
+        PARKED // Waiting for connectivity
+    }
+
+    // Whether this implementation records anything; lets call sites skip expensive bookkeeping
+    boolean isEnabled();
+
+    void recordStage(Stage stage, long durationNanos);
+
+    void increment(Counter counter, long delta);
+
+    void adjust(Gauge gauge, int delta);
+
+    // Default implementation: records nothing
+    ImageMetrics NONE = new ImageMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordStage(Stage stage, long durationNanos) {
+        }
+
+        @Override
+        public void increment(Counter counter, long delta) {
+        }
+
+        @Override
+        public void adjust(Gauge gauge, int delta) {
+        }
+    };
+}
@@ -0,0 +1,26 @@
+package com.example.assignment_app.util;
+
+import android.os.Trace;
+
+// ImageTrace - android.os.Trace sections for the image pipeline, visible in Perfetto/systrace.
+// Trace.beginSection is a cheap flag check when no trace is being captured.
+public final class ImageTrace {
+
+    private static final int MAX_SECTION_NAME_LENGTH = 127; // Limit enforced by Trace
+
+    private ImageTrace() {
+    }
+
+    // Begins a section on the current thread; must be paired with end() on the same thread
+    public static void begin(String sectionName) {
+        if (sectionName.length() > MAX_SECTION_NAME_LENGTH) {
+            sectionName = sectionName.substring(0, MAX_SECTION_NAME_LENGTH);
+        }
+        Trace.beginSection(sectionName);
+    }
+
+    // Ends the most recent section begun on the current thread
+    public static void end() {
+        Trace.endSection();
+    }
+}
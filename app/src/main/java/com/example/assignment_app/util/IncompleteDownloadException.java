@@ -0,0 +1,19 @@
+package com.example.assignment_app.util;
+
+import java.io.IOException;
+
+// IncompleteDownloadException - A response body was cut off (cancel, timeout, network switch).
+// Carries what arrived so a later attempt can resume instead of starting over.
+public class IncompleteDownloadException extends IOException {
+    private final PartialDownload partial;
+
+    public IncompleteDownloadException(String url, PartialDownload partial, Throwable cause) {
+        super("Download of " + url + " cut off after " + (partial != null ? partial.length() : 0) + " bytes", cause);
+        this.partial = partial;
+    }
+
+    // What was received, null if there was nothing worth keeping
+    public PartialDownload getPartial() {
+        return partial;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.assignment_app.util;
+
+// Instrumentation - Process-wide ImageMetrics the pipeline reports to.
+// Defaults to ImageMetrics.NONE, so production builds pay one volatile read per call site.
+public final class Instrumentation {
+
+    private static volatile ImageMetrics metrics = ImageMetrics.NONE;
+
+    private Instrumentation() {
+    }
+
+    // Returns the installed metrics, never null
+    public static ImageMetrics metrics() {
+        return metrics;
+    }
+
+    // Installs a metrics implementation; null restores the no-op default
+    public static void install(ImageMetrics newMetrics) {
+        metrics = newMetrics != null ? newMetrics : ImageMetrics.NONE;
+    }
+}
@@ -3,24 +3,33 @@ package com.example.assignment_app.util;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
 import android.os.Build;
-import android.widget.Toast;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.Map;
 
 public class NetworkUtils {
 
+    // Transport types reported by getTransportType
+    public static final int TRANSPORT_NONE = 0;
+    public static final int TRANSPORT_WIFI = 1;
+    public static final int TRANSPORT_CELLULAR = 2;
+    public static final int TRANSPORT_ETHERNET = 3;
+    public static final int TRANSPORT_OTHER = 4;
+
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416; // Not in HttpURLConnection
+
     // Method to check network availability
     public static boolean isNetworkAvailable(Context context) {
         ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
@@ -42,59 +51,97 @@ public class NetworkUtils {
         }
     }
 
+    // Method to identify the transport of the active network
+    public static int getTransportType(Context context) {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return TRANSPORT_NONE;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
+            return getTransportType(capabilities);
+        } else {
+            // For older devices
+            NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+            if (networkInfo == null || !networkInfo.isConnected()) {
+                return TRANSPORT_NONE;
+            }
+            switch (networkInfo.getType()) {
+                case ConnectivityManager.TYPE_WIFI:
+                    return TRANSPORT_WIFI;
+                case ConnectivityManager.TYPE_MOBILE:
+                    return TRANSPORT_CELLULAR;
+                case ConnectivityManager.TYPE_ETHERNET:
+                    return TRANSPORT_ETHERNET;
+                default:
+                    return TRANSPORT_OTHER;
+            }
+        }
+    }
+
+    // Method to map network capabilities to a transport type
+    public static int getTransportType(NetworkCapabilities capabilities) {
+        if (capabilities == null) {
+            return TRANSPORT_NONE;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+            return TRANSPORT_WIFI;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return TRANSPORT_ETHERNET;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return TRANSPORT_CELLULAR;
+        }
+        return TRANSPORT_OTHER;
+    }
+
+    // Transport used by the methods that don't take one
+    private static volatile HttpTransport defaultTransport = new UrlConnectionTransport();
+
+    // Replaces the transport used by the methods that don't take one
+    public static void setDefaultTransport(HttpTransport transport) {
+        defaultTransport = transport != null ? transport : new UrlConnectionTransport();
+    }
+
+    public static HttpTransport getDefaultTransport() {
+        return defaultTransport;
+    }
+
     // Method to fetch data from a given URL
     public static String fetchData(String urlString) throws Exception {
-        StringBuilder result = new StringBuilder();
-        URL url = new URL(urlString);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-
-        BufferedReader rd = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        String line;
-        while ((line = rd.readLine()) != null) {
-            result.append(line);
-        }
-        rd.close();
-        return result.toString();
+        return fetchData(defaultTransport, urlString);
     }
 
-    // API endpoint URL
-    private static final String API_URL = "https://acharyaprashant.org/api/v2/content/misc/media-coverages?limit=100";
+    // Method to fetch data from a given URL over the given transport
+    public static String fetchData(HttpTransport transport, String urlString) throws IOException {
+        ImageMetrics metrics = Instrumentation.metrics();
+        long start = System.nanoTime();
+        ImageTrace.begin("NetworkUtils#fetchData");
+        try (HttpResponse response = transport.get(urlString, Collections.<String, String>emptyMap())) {
+            if (!response.isSuccessful()) {
+                throw new HttpStatusException(response.getCode(), urlString);
+            }
+            byte[] data = readInputStream(response.getBody());
+            metrics.increment(ImageMetrics.Counter.BYTES_DOWNLOADED, data.length);
+            return new String(data, StandardCharsets.UTF_8);
+        } finally {
+            ImageTrace.end();
+            metrics.recordStage(ImageMetrics.Stage.FEED_FETCH, System.nanoTime() - start);
+        }
+    }
 
     // Method to fetch JSON response from API
     public static String fetchJsonFromApi() {
-        StringBuilder result = new StringBuilder();
-        HttpURLConnection conn = null;
-        BufferedReader reader = null;
+        return fetchJsonFromApi(defaultTransport, ApiEndpoint.DEFAULT, ApiEndpoint.DEFAULT_LIMIT);
+    }
 
+    // Method to fetch up to limit entries of JSON response from the given endpoint, null on any failure
+    public static String fetchJsonFromApi(HttpTransport transport, ApiEndpoint endpoint, int limit) {
         try {
-            URL url = new URL(API_URL);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000); // Timeout after 5 seconds
-            conn.setReadTimeout(5000);
-
-            // Check if response is OK
-            int responseCode = conn.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                return null;
-            }
-
-            reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                result.append(line);
-            }
+            return fetchData(transport, endpoint.mediaCoveragesUrl(limit));
         } catch (Exception e) {
             e.printStackTrace();
             return null;
-        } finally {
-            try {
-                if (reader != null) reader.close(); // Close reader
-                if (conn != null) conn.disconnect(); // Disconnect connection
-            } catch (Exception ignored) {}
         }
-        return result.toString();
     }
 
     // Method to generate a list of image URLs
@@ -110,22 +157,104 @@ public class NetworkUtils {
 
     // Method to download an image from a given URL
     public static byte[] downloadImage(String imageUrl) throws IOException {
-        URL url = new URL(imageUrl);
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        return downloadImage(defaultTransport, imageUrl);
+    }
+
+    // Method to download an image from a given URL over the given transport
+    public static byte[] downloadImage(HttpTransport transport, String imageUrl) throws IOException {
+        return downloadImage(transport, imageUrl, null);
+    }
 
+    // Method to download an image, asking only for the bytes missing from resumeFrom when given.
+    // Falls back to a full download when the server ignores the range or the image changed.
+    // Throws IncompleteDownloadException carrying the bytes received when the body is cut off.
+    public static byte[] downloadImage(HttpTransport transport, String imageUrl, PartialDownload resumeFrom)
+            throws IOException {
+        ImageTrace.begin("NetworkUtils#downloadImage");
         try {
-            connection.setDoInput(true);
-            connection.connect();
+            if (resumeFrom != null && resumeFrom.isResumable()) {
+                Map<String, String> headers = new HashMap<>();
+                headers.put("Range", "bytes=" + resumeFrom.length() + "-");
+                headers.put("If-Range", resumeFrom.getValidator());
+                try (HttpResponse response = transport.get(imageUrl, headers)) {
+                    if (response.getCode() == HttpURLConnection.HTTP_PARTIAL) {
+                        long[] range = PartialDownload.parseContentRange(response.getHeader("Content-Range"));
+                        if (range != null && range[0] == resumeFrom.length()) {
+                            Instrumentation.metrics().increment(ImageMetrics.Counter.BYTES_RESUMED, resumeFrom.length());
+                            return readBody(imageUrl, response, resumeFrom, range[1]);
+                        }
+                        // A range we didn't ask for; start over below
+                    } else if (response.isSuccessful()) {
+                        // Range ignored or the validator no longer matches: this is the whole new image
+                        return readBody(imageUrl, response, null, contentLength(response));
+                    } else if (response.getCode() != HTTP_RANGE_NOT_SATISFIABLE) {
+                        throw new HttpStatusException(response.getCode(), imageUrl);
+                    }
+                }
+            }
 
-            InputStream inputStream = connection.getInputStream();
-            return readInputStream(inputStream);
+            try (HttpResponse response = transport.get(imageUrl, Collections.<String, String>emptyMap())) {
+                if (!response.isSuccessful()) {
+                    throw new HttpStatusException(response.getCode(), imageUrl);
+                }
+                return readBody(imageUrl, response, null, contentLength(response));
+            }
         } finally {
-            connection.disconnect(); // Ensure connection is closed
+            ImageTrace.end(); // Responses (and their connections) are closed by try-with-resources
+        }
+    }
+
+    // Reads a response body after prefix (the bytes already held), checking it arrives in full
+    private static byte[] readBody(String url, HttpResponse response, PartialDownload prefix, long totalLength)
+            throws IOException {
+        ImageMetrics metrics = Instrumentation.metrics();
+        int initialSize = totalLength > 0 && totalLength <= Integer.MAX_VALUE ? (int) totalLength : 16 * 1024;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(initialSize);
+        if (prefix != null) {
+            outputStream.write(prefix.getData());
+        }
+        int prefixLength = outputStream.size();
+        InputStream body = response.getBody();
+        byte[] buffer = new byte[8192];
+        long start = System.nanoTime();
+        try {
+            int bytesRead;
+            while ((bytesRead = body.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, bytesRead);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Download cancelled");
+                }
+            }
+            if (totalLength >= 0 && outputStream.size() < totalLength) {
+                throw new EOFException("Body ended at " + outputStream.size() + " of " + totalLength + " bytes");
+            }
+        } catch (IOException e) {
+            String validator = prefix != null ? prefix.getValidator() : PartialDownload.validatorOf(response);
+            PartialDownload partial = validator != null && outputStream.size() > 0
+                    ? new PartialDownload(outputStream.toByteArray(), validator, totalLength) : null;
+            throw new IncompleteDownloadException(url, partial, e);
+        } finally {
+            metrics.recordStage(ImageMetrics.Stage.DOWNLOAD, System.nanoTime() - start);
+            metrics.increment(ImageMetrics.Counter.BYTES_DOWNLOADED, outputStream.size() - prefixLength);
+        }
+        return outputStream.toByteArray();
+    }
+
+    // Content-Length of a response, -1 if absent or malformed
+    private static long contentLength(HttpResponse response) {
+        String value = response.getHeader("Content-Length");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
     // Helper method to read input stream and convert to byte array
-    private static byte[] readInputStream(InputStream inputStream) throws IOException {
+    public static byte[] readInputStream(InputStream inputStream) throws IOException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         byte[] buffer = new byte[1024];
         int bytesRead;
@@ -0,0 +1,107 @@
+package com.example.assignment_app.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// PartialDownload - The bytes of an interrupted download plus the validator needed to resume it
+// with Range/If-Range. The validator is a strong ETag, or Last-Modified when there is none.
+public final class PartialDownload {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final byte[] data;
+    private final String validator;
+    private final long totalLength; // -1 when the server didn't say
+
+    public PartialDownload(byte[] data, String validator, long totalLength) {
+        this.data = data;
+        this.validator = validator;
+        this.totalLength = totalLength;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public int length() {
+        return data.length;
+    }
+
+    public String getValidator() {
+        return validator;
+    }
+
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    // Whether a retry can ask for just the rest of the body
+    public boolean isResumable() {
+        return validator != null && data.length > 0
+                && (totalLength < 0 || data.length < totalLength);
+    }
+
+    // Returns the If-Range validator of a response, null if it can't be resumed safely
+    public static String validatorOf(HttpResponse response) {
+        if ("none".equalsIgnoreCase(response.getHeader("Accept-Ranges"))) {
+            return null;
+        }
+        String etag = response.getHeader("ETag");
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag; // Weak ETags aren't allowed in If-Range
+        }
+        return response.getHeader("Last-Modified");
+    }
+
+    // Parses "bytes first-last/total" into {first, total}; total is -1 for "*", null if malformed
+    static long[] parseContentRange(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) {
+            return null;
+        }
+        int dash = contentRange.indexOf('-', 6);
+        int slash = contentRange.indexOf('/', 6);
+        if (dash < 0 || slash < dash) {
+            return null;
+        }
+        try {
+            long first = Long.parseLong(contentRange.substring(6, dash).trim());
+            String total = contentRange.substring(slash + 1).trim();
+            return new long[]{first, "*".equals(total) ? -1 : Long.parseLong(total)};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Serializes this partial for the disk cache
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(validator);
+        out.writeLong(totalLength);
+        out.writeInt(data.length);
+        out.write(data);
+        out.flush();
+    }
+
+    // Reads a partial written by writeTo from an entry of entryLength bytes, null if the format is
+    // unknown. The stored data length is checked before allocating, so a corrupt entry throws an
+    // IOException instead of NegativeArraySizeException or OutOfMemoryError.
+    public static PartialDownload readFrom(InputStream inputStream, long entryLength) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != FORMAT_VERSION) {
+            return null;
+        }
+        String validator = in.readUTF();
+        long totalLength = in.readLong();
+        int length = in.readInt();
+        if (length < 0 || length > entryLength || (totalLength >= 0 && length > totalLength)) {
+            throw new IOException("Corrupt partial download: " + length + " of " + totalLength + " bytes");
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new PartialDownload(data, validator, totalLength);
+    }
+}
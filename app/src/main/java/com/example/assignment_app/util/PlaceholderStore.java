@@ -0,0 +1,115 @@
+package com.example.assignment_app.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// PlaceholderStore - Placeholder color of every image decoded so far, by cache key.
+// Lookups are in-memory map reads so the adapter can paint a matching placeholder on bind with no I/O;
+// the file is only touched by load() and save(), which callers run off the main thread.
+// Holds at most MAX_ENTRIES colors; the least recently used go first, so new images still get theirs.
+public class PlaceholderStore {
+
+    private static final int FORMAT_VERSION = 1;
+    static final int MAX_ENTRIES = 5000; // About 200 KB on disk
+
+    private final File file;
+    // Least recently used first; guarded by itself
+    private final Map<String, Integer> colors = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private volatile boolean dirty;
+
+    public PlaceholderStore(File file) {
+        this.file = file;
+    }
+
+    // Placeholder color for a cache key, null if the image hasn't been decoded yet
+    public Integer get(String key) {
+        synchronized (colors) {
+            return colors.get(key);
+        }
+    }
+
+    public boolean contains(String key) {
+        synchronized (colors) {
+            return colors.containsKey(key);
+        }
+    }
+
+    // Records the color of a decoded image, dropping the least recently used one when full
+    public void put(String key, int color) {
+        synchronized (colors) {
+            if (colors.put(key, color) == null) {
+                dirty = true;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (colors) {
+            return colors.size();
+        }
+    }
+
+    // Merges the saved colors into the store; entries added since construction win and count as
+    // more recently used
+    public void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        Map<String, Integer> saved = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                saved.put(key, in.readInt());
+            }
+        }
+        synchronized (colors) {
+            for (Map.Entry<String, Integer> entry : colors.entrySet()) {
+                saved.remove(entry.getKey());
+                saved.put(entry.getKey(), entry.getValue());
+            }
+            colors.clear();
+            colors.putAll(saved); // Oldest first, so the cap drops the oldest
+        }
+    }
+
+    // Writes the store if anything was added since the last save; atomic, see AtomicFiles
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        Map<String, Integer> snapshot;
+        synchronized (colors) {
+            snapshot = new LinkedHashMap<>(colors); // Keeps the use order for the next load
+        }
+        try {
+            AtomicFiles.write(file, stream -> {
+                DataOutputStream out = new DataOutputStream(stream);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, Integer> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue());
+                }
+            });
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+    }
+}
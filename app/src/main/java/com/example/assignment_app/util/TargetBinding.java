@@ -0,0 +1,45 @@
+package com.example.assignment_app.util;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+
+// TargetBinding - Ties a display target (an ImageView) to the request currently bound to it.
+// Every bind bumps a generation number. A result carries the generation it was requested under
+// and is delivered only while that is still current, which is one volatile read and no lookup.
+// The target is weakly referenced, so pending requests never keep views alive.
+public final class TargetBinding<T> {
+
+    private final WeakReference<T> target;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Object request; // What is in flight for the current generation, if anything
+
+    public TargetBinding(T target) {
+        this.target = new WeakReference<>(target);
+    }
+
+    // Binds a new request, invalidating every earlier generation; returns the new one
+    public long bind(Object request) {
+        this.request = request;
+        return generation.incrementAndGet();
+    }
+
+    // Invalidates the current generation without binding anything new
+    public void unbind() {
+        request = null;
+        generation.incrementAndGet();
+    }
+
+    public boolean isCurrent(long token) {
+        return generation.get() == token;
+    }
+
+    // The request bound under the current generation, null after unbind()
+    public Object getRequest() {
+        return request;
+    }
+
+    // The target, or null if it was collected or token is stale
+    public T getTargetIfCurrent(long token) {
+        return isCurrent(token) ? target.get() : null;
+    }
+}
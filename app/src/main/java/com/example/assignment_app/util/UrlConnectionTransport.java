@@ -0,0 +1,69 @@
+package com.example.assignment_app.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// UrlConnectionTransport - HttpTransport backed by HttpURLConnection (the default)
+public class UrlConnectionTransport implements HttpTransport {
+
+    private static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    public UrlConnectionTransport() {
+        this(DEFAULT_TIMEOUT_MILLIS, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public UrlConnectionTransport(int connectTimeoutMillis, int readTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    @Override
+    public HttpResponse get(String url, Map<String, String> headers) throws IOException {
+        ImageMetrics metrics = Instrumentation.metrics();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        ImageTrace.begin("UrlConnectionTransport#get");
+        try {
+            connection.setRequestMethod("GET");
+            connection.setDoInput(true);
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            long start = System.nanoTime();
+            connection.connect();
+            long connected = System.nanoTime();
+            metrics.recordStage(ImageMetrics.Stage.CONNECT, connected - start);
+
+            int code = connection.getResponseCode(); // Blocks until the response headers arrive
+            metrics.recordStage(ImageMetrics.Stage.TTFB, System.nanoTime() - connected);
+
+            Map<String, String> responseHeaders = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                if (header.getKey() != null && !header.getValue().isEmpty()) {
+                    responseHeaders.put(header.getKey(), header.getValue().get(0));
+                }
+            }
+            InputStream body = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (body == null) {
+                body = new ByteArrayInputStream(new byte[0]);
+            }
+            return new HttpResponse(code, responseHeaders, body, connection::disconnect);
+        } catch (IOException | RuntimeException e) {
+            connection.disconnect();
+            throw e;
+        } finally {
+            ImageTrace.end();
+        }
+    }
+}
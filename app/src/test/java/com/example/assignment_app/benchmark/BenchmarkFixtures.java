@@ -0,0 +1,77 @@
+package com.example.assignment_app.benchmark;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+// BenchmarkFixtures - Deterministic feed JSON and image payloads shared by the benchmarks
+public final class BenchmarkFixtures {
+
+    public static final String BASE_PATH = "images/media-coverage";
+
+    private BenchmarkFixtures() {
+    }
+
+    // Builds a media-coverages response with the same shape as the live API
+    public static String feedJson(String domain, int count) {
+        StringBuilder json = new StringBuilder(count * 220);
+        json.append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"coverage-").append(i).append('"')
+                    .append(",\"title\":\"Media coverage ").append(i).append('"')
+                    .append(",\"language\":\"english\"")
+                    .append(",\"thumbnail\":{\"id\":\"thumb-").append(i).append('"')
+                    .append(",\"version\":1")
+                    .append(",\"domain\":\"").append(domain).append('"')
+                    .append(",\"basePath\":\"").append(BASE_PATH).append('"')
+                    .append(",\"key\":\"image-").append(i).append(".jpg\"")
+                    .append(",\"qualities\":[10,20,32,40,64,100]")
+                    .append(",\"aspectRatio\":1}")
+                    .append('}');
+        }
+        json.append(']');
+        return json.toString();
+    }
+
+    // Path of the grid thumbnail for the i-th feed item, relative to the domain
+    public static String thumbnailPath(int index) {
+        return "/" + BASE_PATH + "/0/image-" + index + ".jpg";
+    }
+
+    // Encodes a gradient JPEG with some noise, roughly the entropy of a real photo thumbnail
+    public static byte[] jpeg(int width, int height, int seed) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        Random random = new Random(seed);
+        g.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xffffff)),
+                width, height, new Color(random.nextInt(0xffffff))));
+        g.fillRect(0, 0, width, height);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color(random.nextInt(0xffffff)));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 4 + random.nextInt(width / 8 + 1), 4 + random.nextInt(height / 8 + 1));
+        }
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "jpg", out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Random payload of the given size
+    public static byte[] randomBytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.assignment_app.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// BenchmarkReport - Collects benchmark results and writes them as JMH-compatible JSON,
+// so runs from different builds can be diffed with the usual JMH tooling.
+public final class BenchmarkReport {
+
+    // Set by the Gradle test task, see app/build.gradle.kts
+    public static final String ENABLED_PROPERTY = "benchmark.enabled";
+    public static final String OUTPUT_DIR_PROPERTY = "benchmark.outputDir";
+
+    private final String suite;
+    private final List<MicroBenchmark.Result> results = new ArrayList<>();
+    private final List<String[]> metrics = new ArrayList<>();
+
+    public BenchmarkReport(String suite) {
+        this.suite = suite;
+    }
+
+    // Whether benchmarks were requested for this run (-Pbenchmark)
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    public synchronized void add(MicroBenchmark.Result result) {
+        results.add(result);
+        System.out.println(suite + " " + result);
+    }
+
+    // Adds a single measured value that isn't a ns/op score (e.g. bytes, ratios, percentiles)
+    public synchronized void addMetric(String name, double value, String unit) {
+        metrics.add(new String[]{name, format(value), unit});
+        System.out.println(String.format(Locale.US, "%s %-48s %14s %s", suite, name, format(value), unit));
+    }
+
+    // Writes <outputDir>/<suite>.json and returns the file
+    public synchronized File write() throws IOException {
+        File dir = new File(System.getProperty(OUTPUT_DIR_PROPERTY, "build/benchmark-results"));
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = new File(dir, suite + ".json");
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            out.write("[\n");
+            int written = 0;
+            for (MicroBenchmark.Result result : results) {
+                if (written++ > 0) out.write(",\n");
+                out.write("  {\"benchmark\": \"" + escape(suite + "." + result.name) + "\", ");
+                out.write("\"mode\": \"avgt\", \"threads\": " + result.threads + ", ");
+                out.write("\"primaryMetric\": {\"score\": " + format(result.mean()) + ", ");
+                out.write("\"scoreError\": " + format(result.error()) + ", \"scoreUnit\": \"ns/op\", ");
+                out.write("\"rawData\": [[");
+                for (int i = 0; i < result.samples.length; i++) {
+                    if (i > 0) out.write(", ");
+                    out.write(format(result.samples[i]));
+                }
+                out.write("]]}}");
+            }
+            for (String[] metric : metrics) {
+                if (written++ > 0) out.write(",\n");
+                out.write("  {\"benchmark\": \"" + escape(suite + "." + metric[0]) + "\", ");
+                out.write("\"mode\": \"ss\", \"threads\": 1, ");
+                out.write("\"primaryMetric\": {\"score\": " + metric[1] + ", ");
+                out.write("\"scoreError\": \"NaN\", \"scoreUnit\": \"" + escape(metric[2]) + "\"}}");
+            }
+            out.write("\n]\n");
+        }
+        return file;
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) return "\"NaN\"";
+        return String.format(Locale.US, "%.3f", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
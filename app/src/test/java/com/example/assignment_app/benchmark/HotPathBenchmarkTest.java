@@ -0,0 +1,201 @@
+package com.example.assignment_app.benchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.LruCache;
+
+import com.example.assignment_app.api.ImageApiService;
+import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.BitmapDecoder;
+import com.example.assignment_app.util.BitmapFactoryDecoder;
+import com.example.assignment_app.util.BitmapUtils;
+import com.example.assignment_app.util.CacheKeys;
+import com.example.assignment_app.util.CenterCrop;
+import com.example.assignment_app.util.FakeHttpTransport;
+import com.example.assignment_app.util.ImageDecoderDecoder;
+import com.example.assignment_app.util.NetworkUtils;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+// Microbenchmarks for the decode, hash, stream and cache hot paths.
+// Run with: ./gradlew :app:testDebugUnitTest -Pbenchmark --tests '*BenchmarkTest'
+// Results are written to app/build/benchmark-results/HotPath.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class HotPathBenchmarkTest {
+
+    private static final String DOMAIN = "https://cimg.acharyaprashant.org";
+    private static final int URL_COUNT = 1024;
+    // Grid cell at xhdpi on a 360dp wide screen: 120dp column minus 4dp margins by 120dp
+    private static final int CELL_WIDTH = 224;
+    private static final int CELL_HEIGHT = 240;
+
+    private static BenchmarkReport report;
+    private static String[] urls;
+
+    private final MicroBenchmark benchmark = new MicroBenchmark();
+
+    @BeforeClass
+    public static void setUpClass() {
+        Assume.assumeTrue("Benchmarks run with -Pbenchmark", BenchmarkReport.isEnabled());
+        report = new BenchmarkReport("HotPath");
+        urls = new String[URL_COUNT];
+        for (int i = 0; i < URL_COUNT; i++) {
+            urls[i] = DOMAIN + BenchmarkFixtures.thumbnailPath(i);
+        }
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        if (report != null) {
+            System.out.println("Benchmark results: " + report.write());
+        }
+    }
+
+    @Test
+    public void calculateInSampleSize() throws Exception {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.outWidth = 1920;
+        options.outHeight = 1080;
+        report.add(benchmark.run("calculateInSampleSize",
+                i -> BitmapUtils.calculateInSampleSize(options, 120 + (i & 63), 120)));
+    }
+
+    @Test
+    public void decodeSampledBitmapFromByteArray() throws Exception {
+        final byte[] jpeg = BenchmarkFixtures.jpeg(1080, 720, 1);
+        Bitmap probe = BitmapUtils.decodeSampledBitmapFromByteArray(jpeg, 360, 240);
+        assertNotNull(probe);
+        report.add(benchmark.run("decodeSampledBitmapFromByteArray_1080x720_to_360x240", i -> {
+            Bitmap bitmap = BitmapUtils.decodeSampledBitmapFromByteArray(jpeg, 360, 240);
+            bitmap.recycle();
+            return bitmap;
+        }));
+    }
+
+    @Test
+    public void decoder_bitmapFactory() throws Exception {
+        runDecoder("decoder_bitmapFactory", new BitmapFactoryDecoder());
+    }
+
+    @Test
+    public void decoder_imageDecoder() throws Exception {
+        runDecoder("decoder_imageDecoder", new ImageDecoderDecoder());
+    }
+
+    @Test
+    public void cacheKey_md5Baseline() throws Exception {
+        // The MessageDigest + String.format derivation ImageLoader.getHashKey used before CacheKeys
+        report.add(benchmark.run("cacheKey_md5Baseline", i -> {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            digest.update(urls[i & (URL_COUNT - 1)].getBytes());
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        }));
+    }
+
+    @Test
+    public void cacheKey_murmur3() throws Exception {
+        report.add(benchmark.run("cacheKey_murmur3", i -> CacheKeys.forUrl(urls[i & (URL_COUNT - 1)])));
+    }
+
+    @Test
+    public void cacheKey_memoizedOnItem() throws Exception {
+        final List<ImageItem> items = ImageApiService.parseImages(BenchmarkFixtures.feedJson(DOMAIN, 100));
+        report.add(benchmark.run("cacheKey_memoizedOnItem",
+                i -> items.get(i % 100).getThumbnail().getCacheKey()));
+    }
+
+    @Test
+    public void readInputStream_64KiB() throws Exception {
+        final byte[] body = BenchmarkFixtures.randomBytes(64 * 1024, 2);
+        byte[] copy = NetworkUtils.readInputStream(new ByteArrayInputStream(body));
+        assertEquals(body.length, copy.length);
+        report.add(benchmark.run("readInputStream_64KiB",
+                i -> NetworkUtils.readInputStream(new ByteArrayInputStream(body))));
+    }
+
+    @Test
+    public void downloadImage_fakeTransport_64KiB() throws Exception {
+        // Transport-independent cost of NetworkUtils.downloadImage (no sockets involved)
+        final byte[] body = BenchmarkFixtures.randomBytes(64 * 1024, 3);
+        final FakeHttpTransport transport = new FakeHttpTransport().respond(DOMAIN, 200, body);
+        report.add(benchmark.run("downloadImage_fakeTransport_64KiB",
+                i -> NetworkUtils.downloadImage(transport, urls[i & (URL_COUNT - 1)])));
+    }
+
+    @Test
+    public void lruCache_getPut_1thread() throws Exception {
+        runLruCache(1);
+    }
+
+    @Test
+    public void lruCache_getPut_4threads() throws Exception {
+        runLruCache(4);
+    }
+
+    @Test
+    public void parseImages_100items() throws Exception {
+        final String json = BenchmarkFixtures.feedJson(DOMAIN, 100);
+        assertEquals(100, ImageApiService.parseImages(json).size());
+        report.add(benchmark.run("parseImages_100items", i -> ImageApiService.parseImages(json)));
+    }
+
+    // Decodes a camera-sized JPEG for a grid cell (xhdpi, 3 columns) and crops it like ImageLoader does;
+    // reports the time per thumbnail and the bytes the decoder and the cropped bitmap hold
+    private void runDecoder(String name, final BitmapDecoder decoder) throws Exception {
+        final byte[] jpeg = BenchmarkFixtures.jpeg(1080, 720, 1);
+        final CenterCrop crop = new CenterCrop(CELL_WIDTH, CELL_HEIGHT);
+        Bitmap decoded = decoder.decode(jpeg, CELL_WIDTH, CELL_HEIGHT);
+        assertNotNull(decoded);
+        Bitmap cropped = crop.apply(decoded);
+        assertEquals(CELL_WIDTH, cropped.getWidth());
+        assertEquals(CELL_HEIGHT, cropped.getHeight());
+        report.addMetric(name + ".decodedBytes", decoded.getAllocationByteCount(), "bytes");
+        report.addMetric(name + ".croppedBytes", cropped.getAllocationByteCount(), "bytes");
+
+        report.add(benchmark.run(name + "_1080x720_to_" + CELL_WIDTH + "x" + CELL_HEIGHT, i -> {
+            Bitmap bitmap = decoder.decode(jpeg, CELL_WIDTH, CELL_HEIGHT);
+            Bitmap result = crop.apply(bitmap);
+            if (result != bitmap) {
+                bitmap.recycle();
+            }
+            result.recycle();
+            return result;
+        }));
+    }
+
+    // 90% reads / 10% writes over a cache that holds half of the key space
+    private void runLruCache(int threads) throws Exception {
+        final LruCache<String, Object> cache = new LruCache<>(URL_COUNT / 2);
+        final Object value = new Object();
+        for (int i = 0; i < URL_COUNT / 2; i++) {
+            cache.put(urls[i], value);
+        }
+        report.add(benchmark.threads(threads).run("lruCache_getPut", i -> {
+            String key = urls[(i * 31) & (URL_COUNT - 1)];
+            if (i % 10 == 0) {
+                return cache.put(key, value);
+            }
+            return cache.get(key);
+        }));
+    }
+}
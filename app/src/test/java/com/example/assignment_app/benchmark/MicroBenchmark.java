@@ -0,0 +1,147 @@
+package com.example.assignment_app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// MicroBenchmark - Minimal JMH-style harness (average time mode) for plain JVM unit tests.
+// Runs warmup iterations, then timed measurement iterations, and reports ns/op per iteration.
+public final class MicroBenchmark {
+
+    // A single benchmarked operation; return a value so the JIT can't drop the work
+    public interface Operation {
+        Object run(int invocation) throws Exception;
+    }
+
+    private static final int DEFAULT_WARMUP_ITERATIONS = 5;
+    private static final int DEFAULT_MEASUREMENT_ITERATIONS = 10;
+    private static final long DEFAULT_ITERATION_NANOS = 200_000_000L; // 200ms per iteration
+
+    // Consumed values end up here so they escape the benchmark loop
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final int threads;
+
+    public MicroBenchmark() {
+        this(DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASUREMENT_ITERATIONS, DEFAULT_ITERATION_NANOS, 1);
+    }
+
+    private MicroBenchmark(int warmupIterations, int measurementIterations, long iterationNanos, int threads) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationNanos;
+        this.threads = threads;
+    }
+
+    // Returns a copy of this benchmark that runs the operation on the given number of threads
+    public MicroBenchmark threads(int threads) {
+        return new MicroBenchmark(warmupIterations, measurementIterations, iterationNanos, threads);
+    }
+
+    // Returns a copy of this benchmark with a different time budget per iteration
+    public MicroBenchmark iterationMillis(long millis) {
+        return new MicroBenchmark(warmupIterations, measurementIterations, millis * 1_000_000L, threads);
+    }
+
+    // Runs the operation and returns the per-iteration average time in ns/op
+    public Result run(String name, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(operation);
+        }
+        double[] samples = new double[measurementIterations];
+        for (int i = 0; i < measurementIterations; i++) {
+            samples[i] = runIteration(operation);
+        }
+        return new Result(name, threads, samples);
+    }
+
+    private double runIteration(Operation operation) throws Exception {
+        if (threads == 1) {
+            long[] counts = runLoop(operation, System.nanoTime() + iterationNanos);
+            return (double) counts[1] / counts[0];
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicLong operations = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    long[] counts = runLoop(operation, System.nanoTime() + iterationNanos);
+                    operations.addAndGet(counts[0]);
+                    busyNanos.addAndGet(counts[1]);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        // Average latency seen by each thread, as JMH reports for @Threads in avgt mode
+        return (double) busyNanos.get() / operations.get();
+    }
+
+    // Invokes the operation until the deadline; returns {operations, elapsedNanos}
+    private static long[] runLoop(Operation operation, long deadline) throws Exception {
+        long count = 0;
+        long begin = System.nanoTime();
+        long now = begin;
+        while (now < deadline) {
+            // Check the clock in batches so nanoTime() doesn't dominate nanosecond-scale operations
+            for (int i = 0; i < 64; i++) {
+                sink = operation.run((int) count++);
+            }
+            now = System.nanoTime();
+        }
+        return new long[]{count, now - begin};
+    }
+
+    // Result - Per-iteration scores of one benchmark
+    public static final class Result {
+        public final String name;
+        public final int threads;
+        public final double[] samples; // ns/op per measurement iteration
+
+        Result(String name, int threads, double[] samples) {
+            this.name = name;
+            this.threads = threads;
+            this.samples = samples;
+        }
+
+        public double mean() {
+            double sum = 0;
+            for (double sample : samples) sum += sample;
+            return sum / samples.length;
+        }
+
+        // 99.9% confidence half-width, using the normal approximation
+        public double error() {
+            if (samples.length < 2) return Double.NaN;
+            double mean = mean();
+            double squares = 0;
+            for (double sample : samples) squares += (sample - mean) * (sample - mean);
+            double stdDev = Math.sqrt(squares / (samples.length - 1));
+            return 3.291 * stdDev / Math.sqrt(samples.length);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-48s %4d thr %14.2f +- %.2f ns/op", name, threads, mean(), error());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.assignment_app.benchmark;
+
+import com.example.assignment_app.util.ApiEndpoint;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// MockCdnServer - Local HTTP stand-in for the media-coverages API and the thumbnail CDN.
+// Serves a generated feed whose thumbnails point back at this server, and shapes every
+// response with a fixed latency, a bandwidth cap and a random error rate.
+public final class MockCdnServer implements Closeable {
+
+    public static final String FEED_PATH = "/api/v2/content/misc/media-coverages";
+
+    // Profile - Network conditions applied to every response
+    public static final class Profile {
+        public final String name;
+        public final long latencyMillis; // Delay before the response headers (TTFB)
+        public final long bytesPerSecond; // Body bandwidth per connection, 0 for unlimited
+        public final double errorRate; // Fraction of image requests answered with 503
+
+        public Profile(String name, long latencyMillis, long bytesPerSecond, double errorRate) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+            this.bytesPerSecond = bytesPerSecond;
+            this.errorRate = errorRate;
+        }
+    }
+
+    private static final int THUMBNAIL_SIZE = 400;
+
+    private final Profile profile;
+    private final int itemCount;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<Integer, byte[]> thumbnails = new ConcurrentHashMap<>();
+    private final Random random = new Random(42);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong imageRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    private MockCdnServer(Profile profile, int itemCount) throws IOException {
+        this.profile = profile;
+        this.itemCount = itemCount;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(FEED_PATH, this::serveFeed);
+        server.createContext("/" + BenchmarkFixtures.BASE_PATH + "/", this::serveThumbnail);
+        server.setExecutor(executor);
+    }
+
+    // Starts a server on a free loopback port
+    public static MockCdnServer start(Profile profile, int itemCount) throws IOException {
+        MockCdnServer cdn = new MockCdnServer(profile, itemCount);
+        cdn.server.start();
+        return cdn;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Endpoint to hand to ImageApiService
+    public ApiEndpoint endpoint() {
+        return new ApiEndpoint(baseUrl(), FEED_PATH);
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long imageRequestCount() {
+        return imageRequests.get();
+    }
+
+    public long failedRequestCount() {
+        return failedRequests.get();
+    }
+
+    public long bytesSent() {
+        return bytesSent.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void serveFeed(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = BenchmarkFixtures.feedJson(baseUrl(), itemCount).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, 200, body);
+    }
+
+    private void serveThumbnail(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        imageRequests.incrementAndGet();
+
+        // Paths look like /<basePath>/0/image-<index>.jpg
+        String path = exchange.getRequestURI().getPath();
+        int start = path.lastIndexOf("image-");
+        int end = path.lastIndexOf('.');
+        int index;
+        try {
+            index = Integer.parseInt(path.substring(start + "image-".length(), end));
+        } catch (RuntimeException e) {
+            index = -1;
+        }
+        if (index < 0 || index >= itemCount) {
+            failedRequests.incrementAndGet();
+            send(exchange, 404, null);
+            return;
+        }
+        if (shouldFail()) {
+            failedRequests.incrementAndGet();
+            send(exchange, 503, null);
+            return;
+        }
+
+        byte[] body = thumbnails.get(index);
+        if (body == null) {
+            body = BenchmarkFixtures.jpeg(THUMBNAIL_SIZE, THUMBNAIL_SIZE, index);
+            thumbnails.put(index, body);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+        send(exchange, 200, body);
+    }
+
+    private boolean shouldFail() {
+        synchronized (random) {
+            return random.nextDouble() < profile.errorRate;
+        }
+    }
+
+    // Sends the response after the profile latency, throttling the body to the profile bandwidth
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        try {
+            sleep(profile.latencyMillis * 1_000_000L);
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            OutputStream out = exchange.getResponseBody();
+            long begin = System.nanoTime();
+            int chunk = profile.bytesPerSecond > 0
+                    ? (int) Math.max(1024, Math.min(16 * 1024, profile.bytesPerSecond / 50))
+                    : body.length;
+            for (int offset = 0; offset < body.length; offset += chunk) {
+                int length = Math.min(chunk, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                bytesSent.addAndGet(length);
+                if (profile.bytesPerSecond > 0) {
+                    long due = (offset + length) * 1_000_000_000L / profile.bytesPerSecond;
+                    sleep(due - (System.nanoTime() - begin));
+                }
+            }
+        } catch (IOException e) {
+            // Client cancelled or went away mid-body
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) return;
+        try {
+            Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.assignment_app.benchmark;
+
+import android.os.Looper;
+import android.view.ViewGroup;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.assignment_app.R;
+import com.example.assignment_app.adapter.ImageAdapter;
+import com.example.assignment_app.api.ImageApiService;
+import com.example.assignment_app.model.ImageItem;
+import com.example.assignment_app.util.BitmapUtils;
+import com.example.assignment_app.util.HistogramImageMetrics;
+import com.example.assignment_app.util.ImageLoader;
+import com.example.assignment_app.util.ImageMetrics;
+import com.example.assignment_app.util.Instrumentation;
+import com.example.assignment_app.util.UrlConnectionTransport;
+
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+// End-to-end scroll benchmark: feed fetch, grid layout and a scripted scroll through all
+// items against MockCdnServer, measuring what the user sees.
+// Run with: ./gradlew :app:testDebugUnitTest -Pbenchmark --tests '*ScrollBenchmarkTest'
+// Results are written to app/build/benchmark-results/ScrollE2E.json
+//
+// Frame times include Robolectric's own overhead, so absolute jank numbers are pessimistic;
+// compare them between builds rather than against a device.
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, qualifiers = "w360dp-h640dp-xhdpi")
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ScrollBenchmarkTest {
+
+    private static final long FRAME_NANOS = 16_666_667L; // 60Hz vsync
+    private static final int ITEM_COUNT = 100;
+    private static final int GRID_COLUMN_COUNT = 3;
+    private static final long FEED_TIMEOUT_NANOS = 10_000_000_000L;
+    private static final long SETTLE_TIMEOUT_NANOS = 5_000_000_000L;
+
+    private static BenchmarkReport report;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Assume.assumeTrue("Benchmarks run with -Pbenchmark", BenchmarkReport.isEnabled());
+        report = new BenchmarkReport("ScrollE2E");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        if (report != null) {
+            System.out.println("Benchmark results: " + report.write());
+        }
+    }
+
+    @Test
+    public void wifi() throws Exception {
+        runScenario(new MockCdnServer.Profile("wifi", 20, 2_000_000, 0));
+    }
+
+    @Test
+    public void congestedCellular() throws Exception {
+        runScenario(new MockCdnServer.Profile("cellular", 150, 150_000, 0.02));
+    }
+
+    @Test
+    public void flakyCdn() throws Exception {
+        runScenario(new MockCdnServer.Profile("flaky", 50, 1_000_000, 0.15));
+    }
+
+    private void runScenario(MockCdnServer.Profile profile) throws Exception {
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        Instrumentation.install(metrics);
+        try (MockCdnServer cdn = MockCdnServer.start(profile, ITEM_COUNT)) {
+            ActivityController<AppCompatActivity> controller = Robolectric.buildActivity(AppCompatActivity.class);
+            AppCompatActivity activity = controller.get();
+            activity.setTheme(R.style.Theme_Assignment_App);
+            controller.setup();
+
+            // Same grid setup as MainActivity.setupRecyclerView
+            RecyclerView recyclerView = new RecyclerView(activity);
+            recyclerView.setLayoutManager(new GridLayoutManager(activity, GRID_COLUMN_COUNT));
+            ImageLoader imageLoader = new ImageLoader(activity, new UrlConnectionTransport());
+            int cellMargin = activity.getResources().getDimensionPixelSize(R.dimen.grid_item_margin);
+            imageLoader.setTargetSize(BitmapUtils.calculateImageWidth(activity, GRID_COLUMN_COUNT) - 2 * cellMargin,
+                    activity.getResources().getDimensionPixelSize(R.dimen.grid_item_image_height));
+            ImageAdapter imageAdapter = new ImageAdapter(activity, new ArrayList<>(), imageLoader);
+            ScrollProbe probe = new ScrollProbe(imageAdapter);
+            recyclerView.setAdapter(probe);
+            recyclerView.setHasFixedSize(true);
+            recyclerView.setItemViewCacheSize(GRID_COLUMN_COUNT);
+            int rowHeight = activity.getResources().getDimensionPixelSize(R.dimen.grid_item_image_height) + 2 * cellMargin;
+            int visibleCells = BitmapUtils.calculateVisibleRows(activity, rowHeight) * GRID_COLUMN_COUNT;
+            recyclerView.getRecycledViewPool().setMaxRecycledViews(0, visibleCells + GRID_COLUMN_COUNT);
+            activity.setContentView(recyclerView, new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+            imageAdapter.preinflate(recyclerView, visibleCells + GRID_COLUMN_COUNT);
+
+            FrameDriver frames = new FrameDriver(probe);
+            final AtomicReference<Exception> feedError = new AtomicReference<>();
+            long start = System.nanoTime();
+            new ImageApiService(cdn.endpoint(), new UrlConnectionTransport()).getImages(ITEM_COUNT, new ImageApiService.ImageApiCallback() {
+                @Override
+                public void onSuccess(List<ImageItem> images) {
+                    imageAdapter.updateItems(images);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    feedError.set(e);
+                }
+            });
+            frames.runUntil(() -> probe.getItemCount() > 0 || feedError.get() != null, FEED_TIMEOUT_NANOS);
+            assertNull("Feed failed", feedError.get());
+            long feedLoaded = System.nanoTime();
+
+            // First screen
+            frames.runUntil(() -> probe.bindCount() > 0 && probe.pendingCount() == 0, SETTLE_TIMEOUT_NANOS);
+
+            // Steady scroll to the bottom (~1200dp/s), pause, then a faster scroll back up
+            final int step = Math.max(1, recyclerView.getHeight() / 40);
+            while (recyclerView.canScrollVertically(1)) {
+                frames.frame(() -> recyclerView.scrollBy(0, step));
+            }
+            frames.idle(60);
+            while (recyclerView.canScrollVertically(-1)) {
+                frames.frame(() -> recyclerView.scrollBy(0, -3 * step));
+            }
+            frames.runUntil(() -> probe.pendingCount() == 0, SETTLE_TIMEOUT_NANOS);
+
+            assertTrue("Nothing was displayed", probe.displayCount() > 0);
+            String name = profile.name + ".";
+            report.addMetric(name + "feedLoad", millis(feedLoaded - start), "ms");
+            report.addMetric(name + "timeToFirstImage",
+                    probe.firstDisplayAt() < 0 ? Double.NaN : millis(probe.firstDisplayAt() - start), "ms");
+            report.addMetric(name + "bindToDisplay.p50", millis(probe.latencyPercentile(50)), "ms");
+            report.addMetric(name + "bindToDisplay.p95", millis(probe.latencyPercentile(95)), "ms");
+            report.addMetric(name + "bindToDisplay.p99", millis(probe.latencyPercentile(99)), "ms");
+            report.addMetric(name + "frames", frames.frameCount(), "frames");
+            report.addMetric(name + "droppedFrames", frames.droppedFrames(), "frames");
+            report.addMetric(name + "bindCount", probe.bindCount(), "binds");
+            report.addMetric(name + "viewHoldersCreated", probe.createCount(), "holders");
+            report.addMetric(name + "createViewHolderTime", millis(probe.createNanos()), "ms");
+            report.addMetric(name + "synchronousHitRatio",
+                    (double) probe.synchronousDisplayCount() / probe.bindCount(), "ratio");
+            report.addMetric(name + "networkFetchesPerBind",
+                    (double) cdn.imageRequestCount() / probe.bindCount(), "ratio");
+            report.addMetric(name + "memoryHitRatio",
+                    metrics.hitRatio(ImageMetrics.Counter.MEMORY_HIT, ImageMetrics.Counter.MEMORY_MISS), "ratio");
+            report.addMetric(name + "encodedHitRatio",
+                    metrics.hitRatio(ImageMetrics.Counter.ENCODED_HIT, ImageMetrics.Counter.ENCODED_MISS), "ratio");
+            report.addMetric(name + "diskHitRatio",
+                    metrics.hitRatio(ImageMetrics.Counter.DISK_HIT, ImageMetrics.Counter.DISK_MISS), "ratio");
+            report.addMetric(name + "decode.p95",
+                    millis(metrics.histogram(ImageMetrics.Stage.DECODE).percentile(95)), "ms");
+            report.addMetric(name + "transform.p95",
+                    millis(metrics.histogram(ImageMetrics.Stage.TRANSFORM).percentile(95)), "ms");
+            report.addMetric(name + "neverDisplayed", probe.pendingCount(), "cells");
+            report.addMetric(name + "abandonedBinds", probe.abandonedCount(), "binds");
+            report.addMetric(name + "placeholderFlashes", probe.placeholderFlashCount(), "cells");
+            report.addMetric(name + "imageRequests", cdn.imageRequestCount(), "requests");
+            report.addMetric(name + "failedRequests", cdn.failedRequestCount(), "requests");
+            report.addMetric(name + "bytesTransferred", cdn.bytesSent(), "bytes");
+            report.addMetric(name + "peakInFlight", metrics.peak(ImageMetrics.Gauge.IN_FLIGHT), "requests");
+            report.addMetric(name + "concurrencyLimit", imageLoader.getConcurrencyLimit(), "requests");
+            report.addMetric(name + "peakHeap", frames.peakHeapBytes() / (1024.0 * 1024.0), "MiB");
+
+            imageLoader.shutdown();
+            controller.pause().stop().destroy();
+        } finally {
+            Instrumentation.install(null);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? Double.NaN : nanos / 1_000_000.0;
+    }
+
+    // FrameDriver - Runs main-thread work in 16ms vsync slots in real time, so background
+    // loads progress while the scroll is going on, and counts slots the work overran.
+    private static final class FrameDriver {
+        private final ScrollProbe probe;
+        private long frames;
+        private long droppedFrames;
+        private long peakHeapBytes;
+
+        FrameDriver(ScrollProbe probe) {
+            this.probe = probe;
+        }
+
+        void frame(Runnable work) {
+            long begin = System.nanoTime();
+            work.run();
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(16));
+            probe.onFrame();
+            long elapsed = System.nanoTime() - begin;
+
+            frames++;
+            if (elapsed > FRAME_NANOS) {
+                droppedFrames += elapsed / FRAME_NANOS;
+            } else {
+                sleep(FRAME_NANOS - elapsed);
+            }
+            Runtime runtime = Runtime.getRuntime();
+            peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+        }
+
+        void idle(int count) {
+            for (int i = 0; i < count; i++) frame(() -> { });
+        }
+
+        void runUntil(BooleanSupplier condition, long timeoutNanos) {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+                frame(() -> { });
+            }
+        }
+
+        long frameCount() {
+            return frames;
+        }
+
+        long droppedFrames() {
+            return droppedFrames;
+        }
+
+        long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        private static void sleep(long nanos) {
+            try {
+                Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
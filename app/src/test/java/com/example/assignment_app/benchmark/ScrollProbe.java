@@ -0,0 +1,183 @@
+package com.example.assignment_app.benchmark;
+
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.assignment_app.R;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// ScrollProbe - Adapter wrapper that times every bind until the cell shows a bitmap.
+// Only touched from the main thread, like the adapter it wraps.
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class ScrollProbe extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    // A bound cell waiting for its bitmap
+    private static final class Pending {
+        final long boundAt;
+        Object shown; // What the cell showed right after the bind
+
+        Pending(long boundAt, Object shown) {
+            this.boundAt = boundAt;
+            this.shown = shown;
+        }
+    }
+
+    private final RecyclerView.Adapter delegate;
+    private final Map<ImageView, Pending> pending = new IdentityHashMap<>();
+    private final List<Long> latencies = new ArrayList<>();
+
+    private int binds;
+    private int creates; // onCreateViewHolder calls
+    private long createNanos; // Main-thread time spent in them, mostly inflation when nothing was pre-inflated
+    private int synchronousDisplays; // Bitmap already set when onBindViewHolder returned
+    private int abandoned; // Recycled or rebound before the bitmap arrived
+    private int placeholderFlashes; // Non-bitmap drawable swapped in while waiting
+    private long firstDisplayAt = -1;
+
+    ScrollProbe(RecyclerView.Adapter<?> delegate) {
+        this.delegate = delegate;
+        delegate.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                notifyDataSetChanged();
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        long start = System.nanoTime();
+        RecyclerView.ViewHolder holder = delegate.onCreateViewHolder(parent, viewType);
+        createNanos += System.nanoTime() - start;
+        creates++;
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        ImageView imageView = holder.itemView.findViewById(R.id.imageView);
+        Object before = currentImage(imageView);
+        long boundAt = System.nanoTime();
+        delegate.onBindViewHolder(holder, position);
+        binds++;
+
+        if (pending.remove(imageView) != null) {
+            abandoned++;
+        }
+        Object after = currentImage(imageView);
+        if (isBitmap(after) && after != before) {
+            synchronousDisplays++;
+            recordDisplay(boundAt, System.nanoTime());
+        } else {
+            pending.put(imageView, new Pending(boundAt, after));
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        delegate.onViewRecycled(holder);
+        if (pending.remove(holder.itemView.findViewById(R.id.imageView)) != null) {
+            abandoned++;
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return delegate.getItemCount();
+    }
+
+    // Checks every waiting cell; called once per frame after the main looper has run
+    void onFrame() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<ImageView, Pending>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ImageView, Pending> entry = it.next();
+            Pending p = entry.getValue();
+            Object current = currentImage(entry.getKey());
+            if (current == p.shown) continue;
+            if (isBitmap(current)) {
+                recordDisplay(p.boundAt, now);
+                it.remove();
+            } else {
+                placeholderFlashes++;
+                p.shown = current;
+            }
+        }
+    }
+
+    private void recordDisplay(long boundAt, long displayedAt) {
+        latencies.add(displayedAt - boundAt);
+        if (firstDisplayAt < 0) firstDisplayAt = displayedAt;
+    }
+
+    int bindCount() {
+        return binds;
+    }
+
+    int createCount() {
+        return creates;
+    }
+
+    long createNanos() {
+        return createNanos;
+    }
+
+    int displayCount() {
+        return latencies.size();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    int synchronousDisplayCount() {
+        return synchronousDisplays;
+    }
+
+    int abandonedCount() {
+        return abandoned;
+    }
+
+    int placeholderFlashCount() {
+        return placeholderFlashes;
+    }
+
+    long firstDisplayAt() {
+        return firstDisplayAt;
+    }
+
+    // Nearest-rank percentile of bind-to-display latency, in nanoseconds
+    long latencyPercentile(double percentile) {
+        if (latencies.isEmpty()) return -1;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    private static Object currentImage(ImageView imageView) {
+        // ImageView reuses one BitmapDrawable across setImageBitmap calls, so compare bitmaps
+        Drawable drawable = imageView.getDrawable();
+        if (drawable instanceof BitmapDrawable) {
+            return ((BitmapDrawable) drawable).getBitmap();
+        }
+        return drawable;
+    }
+
+    private static boolean isBitmap(Object image) {
+        return image instanceof android.graphics.Bitmap;
+    }
+}
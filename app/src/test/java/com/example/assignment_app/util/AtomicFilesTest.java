@@ -0,0 +1,45 @@
+package com.example.assignment_app.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class AtomicFilesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void write_replacesContentsAndRemovesTempFile() throws IOException {
+        File file = new File(folder.getRoot(), "data");
+        AtomicFiles.write(file, out -> out.write("old".getBytes()));
+        AtomicFiles.write(file, out -> out.write("new".getBytes()));
+
+        assertEquals("new", new String(Files.readAllBytes(file.toPath())));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void write_failureKeepsPreviousContents() throws IOException {
+        File file = new File(folder.getRoot(), "data");
+        AtomicFiles.write(file, out -> out.write("old".getBytes()));
+
+        try {
+            AtomicFiles.write(file, out -> {
+                out.write("partial".getBytes());
+                throw new IOException("disk full");
+            });
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+
+        assertEquals("old", new String(Files.readAllBytes(file.toPath())));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class CacheKeysTest {
+
+    private static final String URL = "https://cimg.acharyaprashant.org/images/img-4f2a/0/image.jpg";
+
+    @Test
+    public void forUrl_isStable() {
+        assertEquals(CacheKeys.forUrl(URL), CacheKeys.forUrl(URL));
+    }
+
+    @Test
+    public void forUrl_matchesMurmur3ReferenceValues() {
+        // MurmurHash3_x64_128 over the UTF-16LE bytes, seed 0x9747b28c
+        assertEquals("392b208a1daabbb393b0608fe302957a", CacheKeys.forUrl(""));
+        assertEquals("8160be860b78f480d6b73824edf8e1b4", CacheKeys.forUrl(URL));
+    }
+
+    @Test
+    public void forUrl_isDiskLruCacheSafe() {
+        String key = CacheKeys.forUrl(URL);
+        assertEquals(CacheKeys.KEY_LENGTH, key.length());
+        assertTrue(key.matches("[a-z0-9_-]{1,64}"));
+    }
+
+    @Test
+    public void forContent_matchesSha256AndIsDiskLruCacheSafe() {
+        String key = CacheKeys.forContent("abc".getBytes());
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", key);
+        assertTrue(CacheKeys.isContentKey(key));
+        assertFalse(CacheKeys.isContentKey(CacheKeys.forUrl(URL)));
+        assertTrue(key.matches("[a-z0-9_-]{1,64}"));
+    }
+
+    @Test
+    public void forUrl_separatesNeighbouringUrls() {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            keys.add(CacheKeys.forUrl("https://cimg.acharyaprashant.org/images/img-" + i + "/0/image.jpg"));
+        }
+        assertEquals(10000, keys.size());
+    }
+
+    @Test
+    public void forUrl_coversEveryTailLength() {
+        Set<String> keys = new HashSet<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 17; i++) {
+            keys.add(CacheKeys.forUrl(sb.toString()));
+            sb.append('a');
+        }
+        assertEquals(17, keys.size());
+    }
+}
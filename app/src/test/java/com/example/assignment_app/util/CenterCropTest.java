@@ -0,0 +1,59 @@
+package com.example.assignment_app.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Rect;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class CenterCropTest {
+
+    @Test
+    public void sourceRect_cropsTheLongerSideAroundTheCenter() {
+        CenterCrop crop = new CenterCrop(100, 100);
+
+        assertEquals(new Rect(100, 0, 300, 200), crop.sourceRect(400, 200));
+        assertEquals(new Rect(0, 50, 200, 250), crop.sourceRect(200, 300));
+        assertEquals(new Rect(0, 0, 50, 50), crop.sourceRect(50, 50));
+    }
+
+    @Test
+    public void apply_producesExactTargetSizeKeepingTheCenter() {
+        // Left half red, right half blue; the square crop keeps the middle of both halves
+        Bitmap source = Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888);
+        for (int x = 0; x < 400; x++) {
+            for (int y = 0; y < 200; y++) {
+                source.setPixel(x, y, x < 200 ? Color.RED : Color.BLUE);
+            }
+        }
+
+        Bitmap result = new CenterCrop(120, 100).apply(source);
+
+        assertEquals(120, result.getWidth());
+        assertEquals(100, result.getHeight());
+        assertEquals(Color.RED, result.getPixel(10, 50));
+        assertEquals(Color.BLUE, result.getPixel(110, 50));
+    }
+
+    @Test
+    public void apply_returnsSourceAlreadyAtTargetSize() {
+        Bitmap source = Bitmap.createBitmap(120, 100, Bitmap.Config.ARGB_8888);
+
+        assertSame(source, new CenterCrop(120, 100).apply(source));
+    }
+
+    @Test
+    public void key_identifiesTheGeometry() {
+        assertEquals(new CenterCrop(120, 100).key(), new CenterCrop(120, 100).key());
+        assertNotEquals(new CenterCrop(120, 100).key(), new CenterCrop(100, 120).key());
+    }
+}
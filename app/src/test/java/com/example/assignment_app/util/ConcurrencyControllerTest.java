@@ -0,0 +1,102 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrencyControllerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void initialLimit_dependsOnTransport() {
+        assertEquals(8, ConcurrencyController.initialLimit(NetworkUtils.TRANSPORT_ETHERNET));
+        assertEquals(6, ConcurrencyController.initialLimit(NetworkUtils.TRANSPORT_WIFI));
+        assertEquals(3, ConcurrencyController.initialLimit(NetworkUtils.TRANSPORT_CELLULAR));
+        assertEquals(2, ConcurrencyController.initialLimit(NetworkUtils.TRANSPORT_OTHER));
+    }
+
+    @Test
+    public void onComplete_growsWhileLatencyAndThroughputHold() {
+        ConcurrencyController controller = new ConcurrencyController(NetworkUtils.TRANSPORT_CELLULAR);
+        long now = 0;
+        for (int window = 0; window < 3; window++) {
+            int samples = Math.max(controller.getLimit(), 4);
+            for (int i = 0; i < samples; i++) {
+                now += 10 * MS;
+                controller.onComplete(100 * MS, 50_000, true, now);
+            }
+        }
+        assertEquals(6, controller.getLimit());
+    }
+
+    @Test
+    public void onComplete_backsOffWhenLatencyBuildsUp() {
+        ConcurrencyController controller = new ConcurrencyController(NetworkUtils.TRANSPORT_WIFI);
+        long now = 0;
+        for (int i = 0; i < 6; i++) {
+            now += 10 * MS;
+            controller.onComplete(100 * MS, 50_000, true, now);
+        }
+        assertEquals(7, controller.getLimit());
+
+        for (int i = 0; i < 7; i++) {
+            now += 10 * MS;
+            controller.onComplete(500 * MS, 50_000, true, now);
+        }
+        assertEquals(5, controller.getLimit());
+    }
+
+    @Test
+    public void onComplete_halvesOnTransportFailure() {
+        ConcurrencyController controller = new ConcurrencyController(NetworkUtils.TRANSPORT_ETHERNET);
+        long now = 0;
+        for (int i = 0; i < 8; i++) {
+            now += 10 * MS;
+            controller.onComplete(100 * MS, 50_000, i != 3, now);
+        }
+        assertEquals(4, controller.getLimit());
+    }
+
+    @Test
+    public void onComplete_neverLeavesBounds() {
+        ConcurrencyController controller = new ConcurrencyController(NetworkUtils.TRANSPORT_OTHER);
+        long now = 0;
+        for (int i = 0; i < 50; i++) {
+            now += MS;
+            controller.onComplete(10 * MS, 0, false, now);
+        }
+        assertEquals(ConcurrencyController.MIN_LIMIT, controller.getLimit());
+
+        for (int i = 0; i < 500; i++) {
+            now += MS;
+            controller.onComplete(10 * MS, 50_000, true, now);
+        }
+        assertEquals(ConcurrencyController.MAX_LIMIT, controller.getLimit());
+    }
+
+    @Test
+    public void acquire_blocksAtTheLimitUntilRelease() throws Exception {
+        ConcurrencyController controller = new ConcurrencyController(NetworkUtils.TRANSPORT_OTHER);
+        controller.acquire();
+        controller.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                controller.acquire();
+                acquired.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        controller.release();
+        assertTrue(acquired.await(1, TimeUnit.SECONDS));
+        assertEquals(2, controller.getInFlight());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.assignment_app.util;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowNetwork;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class ConnectivityMonitorTest {
+
+    private final Network network = ShadowNetwork.newInstance(1);
+    private final List<Integer> changes = new ArrayList<>();
+    private ConnectivityManager connectivityManager;
+    private ConnectivityMonitor monitor;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.getApplication();
+        connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        monitor = new ConnectivityMonitor(context);
+        monitor.addListener((connected, transportType) -> {
+            assertEquals(connected, transportType != NetworkUtils.TRANSPORT_NONE);
+            changes.add(transportType);
+        });
+    }
+
+    @Test
+    public void onLost_reportsOffline() {
+        callback().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_WIFI, true));
+        callback().onLost(network);
+
+        assertFalse(monitor.isConnected());
+        assertEquals(NetworkUtils.TRANSPORT_NONE, monitor.getTransportType());
+        assertEquals(NetworkUtils.TRANSPORT_NONE, (int) changes.get(changes.size() - 1));
+    }
+
+    @Test
+    public void onCapabilitiesChanged_tracksTransportAndNotifiesOncePerChange() {
+        callback().onLost(network);
+        changes.clear();
+
+        callback().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_CELLULAR, true));
+        callback().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_CELLULAR, true));
+        callback().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_WIFI, true));
+
+        assertTrue(monitor.isConnected());
+        assertEquals(NetworkUtils.TRANSPORT_WIFI, monitor.getTransportType());
+        assertEquals(2, changes.size());
+    }
+
+    @Test
+    public void onCapabilitiesChanged_withoutInternetIsOffline() {
+        callback().onCapabilitiesChanged(network, capabilities(NetworkCapabilities.TRANSPORT_WIFI, false));
+
+        assertFalse(monitor.isConnected());
+    }
+
+    @Test
+    public void unregister_removesTheCallback() {
+        monitor.unregister();
+
+        assertTrue(shadowOf(connectivityManager).getNetworkCallbacks().isEmpty());
+    }
+
+    private ConnectivityManager.NetworkCallback callback() {
+        return shadowOf(connectivityManager).getNetworkCallbacks().iterator().next();
+    }
+
+    private static NetworkCapabilities capabilities(int transport, boolean internet) {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(transport);
+        if (internet) {
+            shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        }
+        return capabilities;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.assignment_app.util;
+
+import com.jakewharton.disklrucache.DiskLruCache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+public class ContentStoreTest {
+
+    private static final byte[] IMAGE = "same thumbnail bytes".getBytes();
+    private static final byte[] OTHER_IMAGE = "other thumbnail bytes".getBytes();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DiskLruCache cache;
+    private ContentStore store;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        cache = DiskLruCache.open(folder.newFolder("thumbnails"), 1, 1, 1024 * 1024);
+        indexFile = new File(folder.getRoot(), "index");
+        store = new ContentStore(cache, indexFile);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.close();
+    }
+
+    @Test
+    public void put_sameBytesUnderTwoUrls_storesThemOnce() throws IOException {
+        String a = CacheKeys.forUrl("https://cdn/a/0/image.jpg");
+        String b = CacheKeys.forUrl("https://cdn/b/1/image.jpg");
+        String contentKey = store.put(a, IMAGE);
+        store.put(b, IMAGE);
+
+        assertEquals(contentKey, store.getContentKey(b));
+        assertEquals(2, store.getRefCount(contentKey));
+        assertEquals(IMAGE.length, cache.size());
+        assertArrayEquals(IMAGE, store.get(b));
+    }
+
+    @Test
+    public void remove_deletesContentWithItsLastUrl() throws IOException {
+        String a = CacheKeys.forUrl("a");
+        String b = CacheKeys.forUrl("b");
+        String contentKey = store.put(a, IMAGE);
+        store.put(b, IMAGE);
+
+        store.remove(a);
+        assertNull(store.get(a));
+        assertArrayEquals(IMAGE, store.get(b));
+
+        store.remove(b);
+        assertNull(store.getContent(contentKey));
+        assertEquals(0, store.getRefCount(contentKey));
+    }
+
+    @Test
+    public void put_newBytesForUrl_releasesPreviousContent() throws IOException {
+        String a = CacheKeys.forUrl("a");
+        String oldKey = store.put(a, IMAGE);
+        String newKey = store.put(a, OTHER_IMAGE);
+
+        assertNotEquals(oldKey, newKey);
+        assertNull(store.getContent(oldKey));
+        assertArrayEquals(OTHER_IMAGE, store.get(a));
+    }
+
+    @Test
+    public void save_roundTripsIndexAndRefCounts() throws IOException {
+        String a = CacheKeys.forUrl("a");
+        String contentKey = store.put(a, IMAGE);
+        store.put(CacheKeys.forUrl("b"), IMAGE);
+        store.save();
+
+        ContentStore reloaded = new ContentStore(cache, indexFile);
+        reloaded.load();
+
+        assertEquals(2, reloaded.size());
+        assertEquals(2, reloaded.getRefCount(contentKey));
+        assertArrayEquals(IMAGE, reloaded.get(a));
+    }
+
+    @Test
+    public void get_movesUrlKeyedEntryIntoStore() throws IOException {
+        String a = CacheKeys.forUrl("a");
+        DiskLruCache.Editor editor = cache.edit(a);
+        OutputStream out = editor.newOutputStream(0);
+        out.write(IMAGE);
+        out.close();
+        editor.commit();
+
+        assertTrue(store.contains(a));
+        assertArrayEquals(IMAGE, store.get(a));
+        assertEquals(CacheKeys.forContent(IMAGE), store.getContentKey(a));
+        assertNull(cache.get(a));
+    }
+
+    @Test
+    public void get_dropsUrlWhoseContentWasEvicted() throws IOException {
+        String a = CacheKeys.forUrl("a");
+        String contentKey = store.put(a, IMAGE);
+        cache.remove(contentKey);
+
+        assertFalse(store.contains(a));
+        assertNull(store.get(a));
+        assertNull(store.getContentKey(a));
+        assertEquals(0, store.getRefCount(contentKey));
+    }
+
+    @Test
+    public void save_dropsUrlsWhoseContentWasEvictedAndRecountsTheRest() throws IOException {
+        cache.close();
+        cache = DiskLruCache.open(folder.newFolder("small"), 1, 1, IMAGE.length + OTHER_IMAGE.length - 1);
+        store = new ContentStore(cache, indexFile);
+        String a = CacheKeys.forUrl("a");
+        String b = CacheKeys.forUrl("b");
+        String c = CacheKeys.forUrl("c");
+        String evictedKey = store.put(a, IMAGE);
+        store.put(b, IMAGE);
+        String keptKey = store.put(c, OTHER_IMAGE); // Evicts IMAGE, which nothing reads afterwards
+        store.save();
+
+        assertEquals(1, store.size());
+        assertEquals(0, store.getRefCount(evictedKey));
+        assertEquals(1, store.getRefCount(keptKey));
+
+        ContentStore reloaded = new ContentStore(cache, indexFile);
+        reloaded.load();
+        assertEquals(1, reloaded.size());
+        assertNull(reloaded.getContentKey(a));
+        assertEquals(0, reloaded.getRefCount(evictedKey));
+        assertEquals(keptKey, reloaded.getContentKey(c));
+    }
+
+    @Test
+    public void put_beyondMaxEntries_dropsLeastRecentlyUsedUrl() throws IOException {
+        store = new ContentStore(cache, indexFile, 2);
+        String a = CacheKeys.forUrl("a");
+        String b = CacheKeys.forUrl("b");
+        String c = CacheKeys.forUrl("c");
+        String oldKey = store.put(a, IMAGE);
+        store.put(b, OTHER_IMAGE);
+        store.getContentKey(a);
+        store.put(c, "third thumbnail bytes".getBytes());
+
+        assertEquals(2, store.size());
+        assertEquals(oldKey, store.getContentKey(a));
+        assertNull(store.getContentKey(b));
+        assertNull(store.getContent(CacheKeys.forContent(OTHER_IMAGE)));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class DominantColorTest {
+
+    @Test
+    public void fromPixels_picksTheLargestColorArea() {
+        int[] pixels = new int[64];
+        Arrays.fill(pixels, 0xff2040c0); // Mostly blue
+        for (int i = 0; i < 20; i++) {
+            pixels[i] = 0xffe0e0e0; // Some light grey
+        }
+
+        assertEquals(0xff2040c0, DominantColor.fromPixels(pixels));
+    }
+
+    @Test
+    public void fromPixels_averagesWithinTheWinningBucket() {
+        int[] pixels = {0xff101010, 0xff181818, 0xfff00000};
+
+        assertEquals(0xff141414, DominantColor.fromPixels(pixels));
+    }
+
+    @Test
+    public void fromPixels_ignoresTransparentPixels() {
+        int[] pixels = {0x00ffffff, 0x10ffffff, 0x20ffffff, 0xff00ff00};
+
+        assertEquals(0xff00ff00, DominantColor.fromPixels(pixels));
+        assertEquals(0, DominantColor.fromPixels(new int[]{0x00000000, 0x40ffffff}));
+    }
+}
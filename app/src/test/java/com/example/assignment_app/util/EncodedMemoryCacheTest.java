@@ -0,0 +1,70 @@
+package com.example.assignment_app.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class EncodedMemoryCacheTest {
+
+    @After
+    public void tearDown() {
+        Instrumentation.install(null);
+    }
+
+    @Test
+    public void get_returnsStoredBytesAndRecordsHitsAndMisses() {
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        Instrumentation.install(metrics);
+        EncodedMemoryCache cache = new EncodedMemoryCache(8 * 1024);
+
+        byte[] data = new byte[100];
+        cache.put("a", data);
+
+        assertSame(data, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(0.5, metrics.hitRatio(ImageMetrics.Counter.ENCODED_HIT, ImageMetrics.Counter.ENCODED_MISS), 0);
+    }
+
+    @Test
+    public void peek_recordsNoHitOrMiss() {
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        Instrumentation.install(metrics);
+        EncodedMemoryCache cache = new EncodedMemoryCache(8 * 1024);
+        byte[] data = new byte[100];
+        cache.put("a", data);
+
+        assertSame(data, cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertTrue(Double.isNaN(metrics.hitRatio(ImageMetrics.Counter.ENCODED_HIT, ImageMetrics.Counter.ENCODED_MISS)));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedByByteSize() {
+        EncodedMemoryCache cache = new EncodedMemoryCache(8 * 1024);
+        cache.put("a", new byte[1024]);
+        cache.put("b", new byte[1024]);
+        for (int i = 0; i < 6; i++) {
+            cache.put("filler" + i, new byte[1024]);
+        }
+        cache.get("a"); // Most recently used now
+        cache.put("c", new byte[1024]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(8 * 1024, cache.size());
+    }
+
+    @Test
+    public void put_skipsEntriesTooLargeForTheTier() {
+        EncodedMemoryCache cache = new EncodedMemoryCache(8 * 1024);
+        cache.put("small", new byte[512]);
+        cache.put("huge", new byte[4 * 1024]);
+
+        assertNull(cache.get("huge"));
+        assertNotNull(cache.get("small"));
+    }
+}
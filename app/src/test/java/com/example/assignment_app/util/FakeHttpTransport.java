@@ -0,0 +1,83 @@
+package com.example.assignment_app.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// FakeHttpTransport - In-process HttpTransport for tests and benchmarks.
+// Routes requests by URL prefix (longest match wins) and records every request it sees.
+public class FakeHttpTransport implements HttpTransport {
+
+    // Produces the response for one request
+    public interface Responder {
+        HttpResponse respond(String url, Map<String, String> headers) throws IOException;
+    }
+
+    // One recorded request
+    public static final class Request {
+        public final String url;
+        public final Map<String, String> headers;
+
+        Request(String url, Map<String, String> headers) {
+            this.url = url;
+            this.headers = Collections.unmodifiableMap(new HashMap<>(headers));
+        }
+    }
+
+    private final Map<String, Responder> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = Collections.synchronizedList(new ArrayList<Request>());
+
+    // Serves a fixed body for every URL starting with urlPrefix
+    public FakeHttpTransport respond(String urlPrefix, final int code, final byte[] body) {
+        return route(urlPrefix, (url, headers) -> response(code, body));
+    }
+
+    // Serves every URL starting with urlPrefix from the responder
+    public FakeHttpTransport route(String urlPrefix, Responder responder) {
+        routes.put(urlPrefix, responder);
+        return this;
+    }
+
+    @Override
+    public HttpResponse get(String url, Map<String, String> headers) throws IOException {
+        requests.add(new Request(url, headers));
+        String match = null;
+        for (String prefix : routes.keySet()) {
+            if (url.startsWith(prefix) && (match == null || prefix.length() > match.length())) {
+                match = prefix;
+            }
+        }
+        if (match == null) {
+            return response(404, new byte[0]);
+        }
+        return routes.get(match).respond(url, headers);
+    }
+
+    public List<Request> requests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    public int requestCount() {
+        return requests.size();
+    }
+
+    // Builds an in-memory response
+    public static HttpResponse response(int code, byte[] body) {
+        return response(code, Collections.<String, String>emptyMap(), body);
+    }
+
+    public static HttpResponse response(int code, Map<String, String> headers, byte[] body) {
+        Map<String, String> all = new HashMap<>(headers);
+        if (!all.containsKey("Content-Length")) {
+            all.put("Content-Length", String.valueOf(body.length));
+        }
+        return new HttpResponse(code, all, new ByteArrayInputStream(body), null);
+    }
+}
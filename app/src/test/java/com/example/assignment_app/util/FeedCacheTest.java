@@ -0,0 +1,34 @@
+package com.example.assignment_app.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FeedCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void read_returnsNullBeforeFirstWrite() throws IOException {
+        FeedCache cache = new FeedCache(new File(folder.getRoot(), "feed.json"));
+
+        assertNull(cache.read());
+        assertEquals(0, cache.lastModified());
+    }
+
+    @Test
+    public void write_replacesPreviousFeed() throws IOException {
+        FeedCache cache = new FeedCache(new File(folder.getRoot(), "feed.json"));
+        cache.write("[{\"id\":\"1\"}]");
+        cache.write("[{\"id\":\"2\",\"title\":\"é\"}]");
+
+        assertEquals("[{\"id\":\"2\",\"title\":\"é\"}]", cache.read());
+        assertEquals(1, folder.getRoot().list().length); // No temp file left behind
+    }
+}
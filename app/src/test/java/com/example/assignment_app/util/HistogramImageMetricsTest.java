@@ -0,0 +1,90 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistogramImageMetricsTest {
+
+    @Test
+    public void histogram_bucketsCoverValueWithinQuarterOctave() {
+        long[] values = {0, 1, 3, 4, 7, 8, 9, 1000, 123_456_789L, Long.MAX_VALUE / 3};
+        for (long value : values) {
+            int index = HistogramImageMetrics.Histogram.bucketIndex(value);
+            long upper = HistogramImageMetrics.Histogram.bucketUpperBound(index);
+            assertTrue(value + " <= " + upper, value <= upper);
+            assertTrue(value + " within 25% of " + upper, upper - value <= value / 4 + 1);
+        }
+    }
+
+    @Test
+    public void histogram_percentiles() {
+        HistogramImageMetrics.Histogram histogram = new HistogramImageMetrics.Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(100_000_000L, histogram.max());
+        assertEquals(50_500_000.0, histogram.mean(), 0.001);
+        assertEquals(50_000_000L, histogram.percentile(50), 50_000_000L / 4);
+        assertEquals(99_000_000L, histogram.percentile(99), 99_000_000L / 4);
+        assertEquals(100_000_000L, histogram.percentile(100));
+    }
+
+    @Test
+    public void counters_gaugesAndHitRatio() {
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        assertTrue(Double.isNaN(metrics.hitRatio(ImageMetrics.Counter.MEMORY_HIT, ImageMetrics.Counter.MEMORY_MISS)));
+
+        metrics.increment(ImageMetrics.Counter.MEMORY_HIT, 3);
+        metrics.increment(ImageMetrics.Counter.MEMORY_MISS, 1);
+        assertEquals(0.75, metrics.hitRatio(ImageMetrics.Counter.MEMORY_HIT, ImageMetrics.Counter.MEMORY_MISS), 0);
+
+        metrics.adjust(ImageMetrics.Gauge.IN_FLIGHT, 1);
+        metrics.adjust(ImageMetrics.Gauge.IN_FLIGHT, 1);
+        metrics.adjust(ImageMetrics.Gauge.IN_FLIGHT, -2);
+        assertEquals(0, metrics.gauge(ImageMetrics.Gauge.IN_FLIGHT));
+        assertEquals(2, metrics.peak(ImageMetrics.Gauge.IN_FLIGHT));
+
+        metrics.reset();
+        assertEquals(0, metrics.counter(ImageMetrics.Counter.MEMORY_HIT));
+        assertEquals(0, metrics.peak(ImageMetrics.Gauge.IN_FLIGHT));
+    }
+
+    @Test
+    public void concurrentRecording_losesNothing() throws Exception {
+        final HistogramImageMetrics metrics = new HistogramImageMetrics();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.recordStage(ImageMetrics.Stage.DECODE, i);
+                    metrics.increment(ImageMetrics.Counter.BYTES_DOWNLOADED, 2);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, metrics.histogram(ImageMetrics.Stage.DECODE).count());
+        assertEquals(160_000, metrics.counter(ImageMetrics.Counter.BYTES_DOWNLOADED));
+    }
+
+    @Test
+    public void instrumentation_defaultsToNoOp() {
+        assertFalse(Instrumentation.metrics().isEnabled());
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        Instrumentation.install(metrics);
+        try {
+            assertSame(metrics, Instrumentation.metrics());
+        } finally {
+            Instrumentation.install(null);
+        }
+        assertSame(ImageMetrics.NONE, Instrumentation.metrics());
+    }
+}
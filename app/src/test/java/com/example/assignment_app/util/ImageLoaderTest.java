@@ -0,0 +1,205 @@
+package com.example.assignment_app.util;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import android.os.Looper;
+import android.widget.ImageView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class ImageLoaderTest {
+
+    private static final String CDN = "https://cdn.test/";
+    private static final int IMAGE_COUNT = 60;
+    private static final long SETTLE_TIMEOUT_NANOS = 10_000_000_000L;
+
+    private Context context;
+    private FakeHttpTransport transport;
+    private ImageLoader loader;
+    private final int[] colors = new int[IMAGE_COUNT];
+    private final byte[][] images = new byte[IMAGE_COUNT][];
+
+    @Before
+    public void setUp() throws Exception {
+        context = RuntimeEnvironment.getApplication();
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(connectivityManager).setNetworkCapabilities(connectivityManager.getActiveNetwork(), capabilities);
+
+        // One solid color per image, so the pixels tell which image a view shows
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            colors[i] = Color.rgb(40 + 3 * i, 200 - 2 * i, (i * 37) & 0xff);
+            images[i] = png(colors[i]);
+        }
+        // Random latency per request, so completions arrive in any order
+        transport = new FakeHttpTransport().route(CDN, (url, headers) -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(15));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return FakeHttpTransport.response(200, images[Integer.parseInt(url.substring(CDN.length()))]);
+        });
+        loader = new ImageLoader(context, transport);
+    }
+
+    @After
+    public void tearDown() {
+        loader.shutdown();
+        Instrumentation.install(null);
+    }
+
+    // Recycled views are rebound while earlier requests for them complete on the loader's threads;
+    // a view must never show an image other than the one it is currently bound to
+    @Test
+    public void rebindingUnderConcurrentCompletions_neverShowsStaleImage() throws Exception {
+        ImageView[] views = new ImageView[8];
+        int[] bound = new int[views.length];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = new ImageView(context);
+        }
+        Random random = new Random(42);
+
+        for (int n = 0; n < 400; n++) {
+            int view = random.nextInt(views.length);
+            int image = random.nextInt(IMAGE_COUNT);
+            bound[view] = image;
+            loader.loadImage(CDN + image, views[view]);
+            assertNoStaleImage(views, bound);
+
+            if (random.nextInt(4) == 0) {
+                Thread.sleep(random.nextInt(5)); // Let some loads finish in the meantime
+            }
+            shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(random.nextInt(5)));
+            assertNoStaleImage(views, bound);
+        }
+
+        // The last bind of every view is never superseded, so it must be displayed
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT_NANOS;
+        while (!showsAll(views, bound) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+            assertNoStaleImage(views, bound);
+        }
+        for (int i = 0; i < views.length; i++) {
+            assertEquals("view " + i, bound[i], shownImage(views[i]));
+        }
+    }
+
+    // An image the disk index knows is saved to the hot set under its content key, and the next
+    // launch's warm-up reads it back from disk before anything is bound
+    @Test
+    public void saveHotSet_contentKeyedEntryIsWarmedUpOnNextLaunch() throws Exception {
+        HistogramImageMetrics metrics = new HistogramImageMetrics();
+        Instrumentation.install(metrics);
+        ImageView view = new ImageView(context);
+        loader.loadImage(CDN + 3, view);
+        settle(() -> shownImage(view) == 3);
+        assertEquals(3, shownImage(view));
+
+        File hotSet = new File(context.getCacheDir(), "thumbnail_hot_set");
+        File index = new File(context.getCacheDir(), "thumbnail_index");
+        loader.saveDiskIndex();
+        loader.saveHotSet();
+        settle(() -> hotSet.exists() && index.exists());
+        assertEquals(Collections.singletonList(CacheKeys.forContent(images[3])), Files.readAllLines(hotSet.toPath()));
+
+        // Next launch, with no network responses at all
+        loader.shutdown();
+        FakeHttpTransport offline = new FakeHttpTransport();
+        loader = new ImageLoader(context, offline);
+        metrics.reset();
+        loader.warmUp();
+        settle(() -> metrics.counter(ImageMetrics.Counter.DISK_HIT) > 0);
+        assertEquals(1, metrics.counter(ImageMetrics.Counter.DISK_HIT));
+
+        ImageView next = new ImageView(context);
+        loader.loadImage(CDN + 3, next);
+        settle(() -> shownImage(next) == 3);
+        assertEquals(3, shownImage(next));
+        assertEquals(0, offline.requestCount());
+    }
+
+    // Runs the main looper until condition holds or the timeout passes
+    private static void settle(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + SETTLE_TIMEOUT_NANOS;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    private void assertNoStaleImage(ImageView[] views, int[] bound) {
+        for (int i = 0; i < views.length; i++) {
+            int shown = shownImage(views[i]);
+            if (shown >= 0) {
+                assertEquals("view " + i + " shows a stale image", bound[i], shown);
+            }
+        }
+    }
+
+    private boolean showsAll(ImageView[] views, int[] bound) {
+        for (int i = 0; i < views.length; i++) {
+            if (shownImage(views[i]) != bound[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Index of the image the view shows, -1 for a placeholder
+    private int shownImage(ImageView view) {
+        Drawable drawable = view.getDrawable();
+        if (!(drawable instanceof BitmapDrawable)) {
+            return -1;
+        }
+        int pixel = ((BitmapDrawable) drawable).getBitmap().getPixel(0, 0);
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            if (colors[i] == pixel) {
+                return i;
+            }
+        }
+        fail("Unknown image color " + Integer.toHexString(pixel));
+        return -1;
+    }
+
+    private static byte[] png(int color) {
+        Bitmap bitmap = Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(color);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+}
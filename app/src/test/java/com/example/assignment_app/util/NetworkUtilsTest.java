@@ -0,0 +1,160 @@
+package com.example.assignment_app.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class NetworkUtilsTest {
+
+    private static final String MIRROR = "http://mirror.test";
+    private static final String ETAG = "\"v1\"";
+
+    private final FakeHttpTransport transport = new FakeHttpTransport();
+
+    @After
+    public void tearDown() {
+        NetworkUtils.setDefaultTransport(null);
+    }
+
+    @Test
+    public void fetchJsonFromApi_usesEndpointTransportAndLimit() {
+        transport.respond(MIRROR + ApiEndpoint.MEDIA_COVERAGES_PATH, 200, "[]".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("[]", NetworkUtils.fetchJsonFromApi(transport, new ApiEndpoint(MIRROR + "/"), 24));
+        assertEquals(MIRROR + ApiEndpoint.MEDIA_COVERAGES_PATH + "?limit=24", transport.requests().get(0).url);
+    }
+
+    @Test
+    public void fetchJsonFromApi_returnsNullOnHttpError() {
+        transport.respond(MIRROR, 503, new byte[0]);
+
+        assertNull(NetworkUtils.fetchJsonFromApi(transport, new ApiEndpoint(MIRROR), ApiEndpoint.DEFAULT_LIMIT));
+    }
+
+    @Test
+    public void downloadImage_readsWholeBody() throws IOException {
+        byte[] body = new byte[100_000];
+        for (int i = 0; i < body.length; i++) body[i] = (byte) i;
+        transport.respond(MIRROR + "/images/", 200, body);
+
+        assertArrayEquals(body, NetworkUtils.downloadImage(transport, MIRROR + "/images/0/a.jpg"));
+    }
+
+    @Test(expected = IOException.class)
+    public void downloadImage_throwsOnNotFound() throws IOException {
+        NetworkUtils.downloadImage(transport, MIRROR + "/missing.jpg");
+    }
+
+    @Test
+    public void downloadImage_resumesWithRangeAndIfRange() throws IOException {
+        byte[] body = body(20_000);
+        transport.route(MIRROR + "/images/", (url, headers) -> {
+            if ("bytes=8000-".equals(headers.get("Range")) && ETAG.equals(headers.get("If-Range"))) {
+                Map<String, String> rangeHeaders = new HashMap<>();
+                rangeHeaders.put("ETag", ETAG);
+                rangeHeaders.put("Content-Range", "bytes 8000-19999/20000");
+                return FakeHttpTransport.response(206, rangeHeaders, Arrays.copyOfRange(body, 8000, body.length));
+            }
+            return FakeHttpTransport.response(200, body);
+        });
+        PartialDownload partial = new PartialDownload(Arrays.copyOf(body, 8000), ETAG, body.length);
+
+        assertArrayEquals(body, NetworkUtils.downloadImage(transport, MIRROR + "/images/0/a.jpg", partial));
+        assertEquals(1, transport.requestCount());
+    }
+
+    @Test
+    public void downloadImage_takesFullBodyWhenRangeIgnored() throws IOException {
+        byte[] body = body(20_000);
+        transport.respond(MIRROR + "/images/", 200, body);
+        PartialDownload partial = new PartialDownload(new byte[8000], ETAG, body.length);
+
+        assertArrayEquals(body, NetworkUtils.downloadImage(transport, MIRROR + "/images/0/a.jpg", partial));
+    }
+
+    @Test
+    public void downloadImage_refetchesWhenRangeNotSatisfiable() throws IOException {
+        byte[] body = body(20_000);
+        transport.route(MIRROR + "/images/", (url, headers) -> headers.containsKey("Range")
+                ? FakeHttpTransport.response(416, new byte[0])
+                : FakeHttpTransport.response(200, body));
+        PartialDownload partial = new PartialDownload(new byte[8000], ETAG, -1);
+
+        assertArrayEquals(body, NetworkUtils.downloadImage(transport, MIRROR + "/images/0/a.jpg", partial));
+        assertEquals(2, transport.requestCount());
+    }
+
+    @Test
+    public void downloadImage_keepsReceivedBytesWhenBodyIsCutOff() throws IOException {
+        byte[] body = body(20_000);
+        transport.route(MIRROR + "/images/", (url, headers) -> {
+            Map<String, String> responseHeaders = new HashMap<>();
+            responseHeaders.put("ETag", ETAG);
+            responseHeaders.put("Content-Length", String.valueOf(body.length));
+            return new HttpResponse(200, responseHeaders, new CutOffStream(body, 12_000), null);
+        });
+
+        try {
+            NetworkUtils.downloadImage(transport, MIRROR + "/images/0/a.jpg", null);
+            fail("Expected IncompleteDownloadException");
+        } catch (IncompleteDownloadException e) {
+            assertArrayEquals(Arrays.copyOf(body, 12_000), e.getPartial().getData());
+            assertEquals(ETAG, e.getPartial().getValidator());
+            assertEquals(body.length, e.getPartial().getTotalLength());
+        }
+    }
+
+    @Test
+    public void defaultTransport_isReplaceable() throws Exception {
+        transport.respond(MIRROR, 200, "ok".getBytes(StandardCharsets.UTF_8));
+        NetworkUtils.setDefaultTransport(transport);
+
+        assertEquals("ok", NetworkUtils.fetchData(MIRROR + "/feed"));
+        assertEquals(1, transport.requestCount());
+    }
+
+    private static byte[] body(int length) {
+        byte[] body = new byte[length];
+        for (int i = 0; i < body.length; i++) body[i] = (byte) i;
+        return body;
+    }
+
+    // Serves the first cutAt bytes of a body, then fails like a dropped connection
+    private static final class CutOffStream extends InputStream {
+        private final ByteArrayInputStream delegate;
+
+        CutOffStream(byte[] body, int cutAt) {
+            delegate = new ByteArrayInputStream(body, 0, cutAt);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b == -1) {
+                throw new IOException("Connection reset");
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            if (n == -1) {
+                throw new IOException("Connection reset");
+            }
+            return n;
+        }
+    }
+}
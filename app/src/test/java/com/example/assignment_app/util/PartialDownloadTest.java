@@ -0,0 +1,84 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PartialDownloadTest {
+
+    @Test
+    public void parseContentRange_readsFirstByteAndTotal() {
+        assertArrayEquals(new long[]{1000, 5000}, PartialDownload.parseContentRange("bytes 1000-4999/5000"));
+        assertArrayEquals(new long[]{0, -1}, PartialDownload.parseContentRange("bytes 0-99/*"));
+        assertNull(PartialDownload.parseContentRange("bytes */5000"));
+        assertNull(PartialDownload.parseContentRange(null));
+    }
+
+    @Test
+    public void validatorOf_prefersStrongEtag() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("ETag", "\"v1\"");
+        headers.put("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertEquals("\"v1\"", PartialDownload.validatorOf(response(headers)));
+
+        headers.put("ETag", "W/\"v1\"");
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", PartialDownload.validatorOf(response(headers)));
+
+        headers.put("Accept-Ranges", "none");
+        assertNull(PartialDownload.validatorOf(response(headers)));
+    }
+
+    @Test
+    public void writeTo_roundTrips() throws IOException {
+        PartialDownload partial = new PartialDownload(new byte[]{1, 2, 3}, "\"v1\"", 10);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        partial.writeTo(out);
+
+        PartialDownload read = PartialDownload.readFrom(new ByteArrayInputStream(out.toByteArray()), out.size());
+
+        assertArrayEquals(partial.getData(), read.getData());
+        assertEquals("\"v1\"", read.getValidator());
+        assertEquals(10, read.getTotalLength());
+        assertTrue(read.isResumable());
+    }
+
+    @Test
+    public void readFrom_rejectsCorruptDataLength() throws IOException {
+        assertCorrupt(-1, 10);
+        assertCorrupt(11, 10); // Longer than the Content-Length
+        assertCorrupt(Integer.MAX_VALUE, -1); // Longer than the entry
+    }
+
+    @Test
+    public void isResumable_needsValidatorAndMissingBytes() {
+        assertFalse(new PartialDownload(new byte[3], null, 10).isResumable());
+        assertFalse(new PartialDownload(new byte[10], "\"v1\"", 10).isResumable());
+        assertTrue(new PartialDownload(new byte[3], "\"v1\"", -1).isResumable());
+    }
+
+    private static void assertCorrupt(int dataLength, long totalLength) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(1);
+        out.writeUTF("\"v1\"");
+        out.writeLong(totalLength);
+        out.writeInt(dataLength);
+        out.write(new byte[8]);
+        try {
+            PartialDownload.readFrom(new ByteArrayInputStream(bytes.toByteArray()), bytes.size());
+            fail("Read a partial with " + dataLength + " data bytes");
+        } catch (IOException expected) {
+        }
+    }
+
+    private static HttpResponse response(Map<String, String> headers) {
+        return new HttpResponse(200, headers, new ByteArrayInputStream(new byte[0]), null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.assignment_app.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class PlaceholderStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void save_roundTripsThroughLoad() throws IOException {
+        File file = new File(folder.getRoot(), "placeholders");
+        PlaceholderStore store = new PlaceholderStore(file);
+        store.put(CacheKeys.forUrl("a"), 0xff336699);
+        store.put(CacheKeys.forUrl("b"), 0xff000000);
+        store.save();
+
+        PlaceholderStore reloaded = new PlaceholderStore(file);
+        reloaded.load();
+
+        assertEquals(2, reloaded.size());
+        assertEquals(Integer.valueOf(0xff336699), reloaded.get(CacheKeys.forUrl("a")));
+        assertNull(reloaded.get(CacheKeys.forUrl("c")));
+    }
+
+    @Test
+    public void load_keepsEntriesAddedBeforeIt() throws IOException {
+        File file = new File(folder.getRoot(), "placeholders");
+        PlaceholderStore saved = new PlaceholderStore(file);
+        saved.put("key", 0xff111111);
+        saved.save();
+
+        PlaceholderStore store = new PlaceholderStore(file);
+        store.put("key", 0xff222222);
+        store.load();
+
+        assertEquals(Integer.valueOf(0xff222222), store.get("key"));
+    }
+
+    @Test
+    public void put_whenFull_dropsLeastRecentlyUsedColor() throws IOException {
+        File file = new File(folder.getRoot(), "placeholders");
+        PlaceholderStore store = new PlaceholderStore(file);
+        for (int i = 0; i < PlaceholderStore.MAX_ENTRIES; i++) {
+            store.put("key" + i, i);
+        }
+        store.get("key0"); // Most recently used now
+        store.put("new", 0xff123456);
+
+        assertEquals(PlaceholderStore.MAX_ENTRIES, store.size());
+        assertEquals(Integer.valueOf(0xff123456), store.get("new"));
+        assertEquals(Integer.valueOf(0), store.get("key0"));
+        assertNull(store.get("key1"));
+
+        store.save();
+        PlaceholderStore reloaded = new PlaceholderStore(file);
+        reloaded.put("newer", 0xff654321);
+        reloaded.load();
+
+        assertEquals(PlaceholderStore.MAX_ENTRIES, reloaded.size());
+        assertEquals(Integer.valueOf(0xff654321), reloaded.get("newer"));
+        assertEquals(Integer.valueOf(0xff123456), reloaded.get("new"));
+        assertNull(reloaded.get("key2")); // Oldest saved entry gives way
+    }
+
+    @Test
+    public void save_skipsWhenNothingChanged() throws IOException {
+        File file = new File(folder.getRoot(), "placeholders");
+        new PlaceholderStore(file).save();
+
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void load_toleratesMissingFile() throws IOException {
+        PlaceholderStore store = new PlaceholderStore(new File(folder.getRoot(), "missing"));
+        store.load();
+
+        assertEquals(0, store.size());
+    }
+}
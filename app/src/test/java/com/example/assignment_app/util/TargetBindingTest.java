@@ -0,0 +1,113 @@
+package com.example.assignment_app.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class TargetBindingTest {
+
+    // Stands in for a recycled ImageView
+    private static final class Cell {
+        String boundKey; // Main thread only
+        String shownKey; // Main thread only
+    }
+
+    @Test
+    public void bind_invalidatesEarlierGenerations() {
+        Cell cell = new Cell();
+        TargetBinding<Cell> binding = new TargetBinding<>(cell);
+
+        long first = binding.bind("a");
+        long second = binding.bind("b");
+
+        assertFalse(binding.isCurrent(first));
+        assertNull(binding.getTargetIfCurrent(first));
+        assertSame(cell, binding.getTargetIfCurrent(second));
+        assertEquals("b", binding.getRequest());
+    }
+
+    @Test
+    public void unbind_invalidatesCurrentGeneration() {
+        TargetBinding<Cell> binding = new TargetBinding<>(new Cell());
+        long token = binding.bind("a");
+
+        binding.unbind();
+
+        assertFalse(binding.isCurrent(token));
+        assertNull(binding.getRequest());
+    }
+
+    // Binds and deliveries run on one "main" thread, results complete on a worker pool in random
+    // order, as with ImageLoader. No delivery may ever show an image the cell isn't bound to.
+    @Test
+    public void concurrentDelivery_neverShowsStaleImage() throws Exception {
+        final int cellCount = 12;
+        final int binds = 20000;
+        Cell[] cells = new Cell[cellCount];
+        @SuppressWarnings("unchecked")
+        TargetBinding<Cell>[] bindings = new TargetBinding[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = new Cell();
+            bindings[i] = new TargetBinding<>(cells[i]);
+        }
+
+        ExecutorService main = Executors.newSingleThreadExecutor();
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        AtomicInteger wrong = new AtomicInteger();
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger droppedEarly = new AtomicInteger();
+        Random random = new Random(42);
+
+        for (int n = 0; n < binds; n++) {
+            int index = random.nextInt(cellCount);
+            String key = "img-" + random.nextInt(40);
+            main.execute(() -> {
+                TargetBinding<Cell> binding = bindings[index];
+                Cell cell = cells[index];
+                cell.boundKey = key;
+                long token = binding.bind(key);
+                workers.execute(() -> {
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(20_000));
+                    if (!binding.isCurrent(token)) {
+                        droppedEarly.incrementAndGet();
+                        return;
+                    }
+                    main.execute(() -> {
+                        Cell target = binding.getTargetIfCurrent(token);
+                        if (target == null) {
+                            return;
+                        }
+                        if (!key.equals(target.boundKey)) {
+                            wrong.incrementAndGet();
+                        }
+                        target.shownKey = key;
+                        delivered.incrementAndGet();
+                    });
+                });
+            });
+        }
+
+        // Binding is done once main has run every bind; then let the workers and their posts drain
+        main.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(30, TimeUnit.SECONDS));
+        main.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        main.shutdown();
+
+        assertEquals(0, wrong.get());
+        assertTrue(delivered.get() > 0);
+        assertTrue(droppedEarly.get() > 0);
+        for (Cell cell : cells) {
+            // The last bind of every cell is never superseded, so it must have been delivered
+            assertEquals(cell.boundKey, cell.shownKey);
+        }
+    }
+}